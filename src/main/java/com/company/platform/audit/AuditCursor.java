@@ -0,0 +1,37 @@
+package com.company.platform.audit;
+
+import com.company.platform.err.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (created_at DESC, id DESC) order of audit_logs:
+ * the last row of a page. Handed to clients as an opaque base64url string.
+ */
+public record AuditCursor(Instant createdAt, long id) {
+
+    public static AuditCursor after(AuditRecord last) {
+        return new AuditCursor(last.createdAt(), last.id());
+    }
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static AuditCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int dot = raw.indexOf('.');
+            int colon = raw.indexOf(':');
+            return new AuditCursor(
+                    Instant.ofEpochSecond(Long.parseLong(raw.substring(0, dot)),
+                            Long.parseLong(raw.substring(dot + 1, colon))),
+                    Long.parseLong(raw.substring(colon + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
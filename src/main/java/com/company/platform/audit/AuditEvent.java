@@ -0,0 +1,11 @@
+package com.company.platform.audit;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One audit_logs row waiting to be written. meta is a JSON document or null.
+ */
+public record AuditEvent(UUID orgId, UUID actorUserId, String action, String targetType, String targetId,
+        String meta, Instant createdAt) {
+}
@@ -0,0 +1,416 @@
+package com.company.platform.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Local append-only journal that audit events go to before the database.
+ *
+ * The journal is a sequence of fixed-size segment files (audit-NNN.journal),
+ * each memory-mapped, so an append is one copy into the page cache and
+ * survives a crash of the process. A sync thread forces new bytes to disk
+ * every syncIntervalMs, which bounds what an OS crash or power loss can take.
+ *
+ * Segment layout: a 16 byte header (magic, version, replayed offset) followed
+ * by records of [length][CRC32C][payload]. A zero length marks the end of
+ * what has been written. The replayer reads from the replayed offset, and
+ * {@link #ack} moves it forward once the rows are in the database; a segment
+ * that is full and fully replayed is deleted. On start, existing segments are
+ * scanned up to the first record that is incomplete or fails its CRC and are
+ * replayed from their saved offset. An ack that didn't reach the disk
+ * before a crash means that batch is written again, so delivery is at least
+ * once.
+ */
+final class AuditJournal implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final int MAGIC = 0x41554a31; // "AUJ1"
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+    private static final int ACKED_AT = 8;
+    private static final int RECORD_HEADER = 8;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final ConcurrentLinkedDeque<Segment> segments = new ConcurrentLinkedDeque<>();
+    private volatile Segment active;
+    private long nextId;
+    private volatile Thread syncer;
+
+    AuditJournal(Path dir, int segmentBytes, int maxSegments) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.lockChannel = FileChannel.open(dir.resolve("journal.lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        this.lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Audit journal " + dir + " is in use by another process");
+        }
+        recover();
+        active = roll();
+    }
+
+    /**
+     * Append an event. Returns false, without writing, when the journal is at
+     * maxSegments and none of them has been replayed yet.
+     */
+    boolean append(AuditEvent event) {
+        byte[] payload = encode(event);
+        if (payload.length > segmentBytes - HEADER - RECORD_HEADER)
+            throw new IllegalArgumentException("Audit event of " + payload.length + " bytes exceeds segment size");
+        var crc = new CRC32C();
+        crc.update(payload);
+        synchronized (this) {
+            Segment seg = active;
+            int pos = seg.end;
+            if (pos + RECORD_HEADER + payload.length > segmentBytes) {
+                if (segments.size() >= maxSegments)
+                    return false;
+                seg.sealed = true;
+                seg = active = roll();
+                pos = seg.end;
+            }
+            seg.buf.put(pos + RECORD_HEADER, payload);
+            seg.buf.putInt(pos + 4, (int) crc.getValue());
+            seg.buf.putInt(pos, payload.length);
+            seg.end = pos + RECORD_HEADER + payload.length; // publishes the record to the reader
+        }
+        return true;
+    }
+
+    /**
+     * Up to max events from the oldest segment with unreplayed records; empty
+     * when everything has been replayed. Deletes segments it finds done.
+     */
+    Batch read(int max) {
+        for (Segment seg : segments) {
+            int pos = seg.acked;
+            boolean done = seg.sealed && seg != active; // read before end: once sealed, end is final
+            int end = seg.end;
+            if (pos >= end) {
+                if (done) {
+                    delete(seg);
+                    continue;
+                }
+                return Batch.EMPTY;
+            }
+            var events = new ArrayList<AuditEvent>(Math.min(max, 1024));
+            var ends = new ArrayList<Integer>(Math.min(max, 1024));
+            while (pos < end && events.size() < max) {
+                int len = seg.buf.getInt(pos);
+                byte[] payload = new byte[len];
+                seg.buf.get(pos + RECORD_HEADER, payload);
+                var crc = new CRC32C();
+                crc.update(payload);
+                if ((int) crc.getValue() != seg.buf.getInt(pos + 4)) {
+                    // only possible if the file was damaged after recovery; give up on the rest of it
+                    log.warn("Audit journal {} corrupt at offset {}, skipping the rest of it", seg.path, pos);
+                    seg.end = pos;
+                    seg.sealed = true;
+                    break;
+                }
+                events.add(decode(payload));
+                pos += RECORD_HEADER + len;
+                ends.add(pos);
+            }
+            return new Batch(seg, events, ends);
+        }
+        return Batch.EMPTY;
+    }
+
+    /**
+     * Mark a batch from {@link #read} as written to the database
+     */
+    void ack(Batch batch) {
+        ack(batch, batch.events.size());
+    }
+
+    /**
+     * Mark the first count events of a batch as written, e.g. when the
+     * database went away partway through it; the rest are read again
+     */
+    void ack(Batch batch, int count) {
+        Segment seg = batch.segment;
+        if (seg == null || count <= 0)
+            return;
+        int end = batch.ends.get(Math.min(count, batch.ends.size()) - 1);
+        seg.buf.putLong(ACKED_AT, end);
+        seg.acked = end;
+        if (seg.sealed && seg != active && seg.acked >= seg.end)
+            delete(seg);
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Bytes written but not yet replayed
+     */
+    long pendingBytes() {
+        long total = 0;
+        for (Segment seg : segments)
+            total += seg.end - seg.acked;
+        return total;
+    }
+
+    void startSync(long intervalMillis) {
+        var t = new Thread(() -> {
+            long interval = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+            while (syncer == Thread.currentThread()) {
+                LockSupport.parkNanos(this, interval);
+                sync();
+            }
+        }, "audit-journal-sync");
+        t.setDaemon(true);
+        syncer = t;
+        t.start();
+    }
+
+    /**
+     * Force written records and replay offsets to disk
+     */
+    void sync() {
+        for (Segment seg : segments) {
+            try {
+                int end = seg.end;
+                if (end > seg.synced) {
+                    seg.buf.force(seg.synced, end - seg.synced);
+                    seg.synced = end;
+                }
+                int acked = seg.acked;
+                if (acked != seg.syncedAck) {
+                    seg.buf.force(0, HEADER);
+                    seg.syncedAck = acked;
+                }
+            } catch (UncheckedIOException | IllegalStateException e) {
+                // segment deleted meanwhile
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Thread t = syncer;
+        syncer = null;
+        if (t != null) {
+            LockSupport.unpark(t);
+            try {
+                t.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sync();
+        for (Segment seg : segments)
+            seg.channel.close();
+        lock.release();
+        lockChannel.close();
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> p.getFileName().toString().matches("audit-\\d+\\.journal"))
+                    .sorted(Comparator.comparing(Path::getFileName))
+                    .toList();
+        }
+        int recovered = 0;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            nextId = Math.max(nextId, Long.parseLong(name.substring(6, name.length() - 8)) + 1);
+            var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            var seg = new Segment(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+            if (channel.size() < HEADER || seg.buf.getInt(0) != MAGIC || seg.buf.getInt(4) != VERSION) {
+                log.warn("Audit journal {} is not a journal segment, skipping it", file);
+                channel.close();
+                continue;
+            }
+            int pos = HEADER;
+            int capacity = seg.buf.capacity();
+            while (pos + RECORD_HEADER <= capacity) {
+                int len = seg.buf.getInt(pos);
+                if (len <= 0 || pos + RECORD_HEADER + len > capacity)
+                    break;
+                byte[] payload = new byte[len];
+                seg.buf.get(pos + RECORD_HEADER, payload);
+                var crc = new CRC32C();
+                crc.update(payload);
+                if ((int) crc.getValue() != seg.buf.getInt(pos + 4)) {
+                    log.warn("Audit journal {} has a torn record at offset {}, ignoring the rest", file, pos);
+                    break;
+                }
+                pos += RECORD_HEADER + len;
+            }
+            seg.end = seg.synced = pos;
+            seg.acked = seg.syncedAck = (int) Math.min(Math.max(seg.buf.getLong(ACKED_AT), HEADER), pos);
+            seg.sealed = true; // appends always go to a fresh segment
+            if (seg.acked >= seg.end) {
+                channel.close();
+                Files.deleteIfExists(file);
+                continue;
+            }
+            segments.add(seg);
+            recovered++;
+        }
+        if (recovered > 0)
+            log.info("Audit journal recovered {} segment(s) with {} bytes to replay", recovered, pendingBytes());
+    }
+
+    private Segment roll() {
+        long id = nextId++;
+        Path file = dir.resolve(String.format("audit-%016d.journal", id));
+        try {
+            var channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            var seg = new Segment(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+            seg.buf.putInt(0, MAGIC);
+            seg.buf.putInt(4, VERSION);
+            seg.buf.putLong(ACKED_AT, HEADER);
+            seg.buf.force(0, HEADER);
+            seg.end = seg.acked = seg.synced = seg.syncedAck = HEADER;
+            segments.add(seg);
+            return seg;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create audit journal segment " + file, e);
+        }
+    }
+
+    private void delete(Segment seg) {
+        if (!segments.remove(seg))
+            return;
+        try {
+            seg.channel.close();
+            Files.deleteIfExists(seg.path);
+        } catch (IOException e) {
+            log.warn("Could not delete audit journal {}: {}", seg.path, e.toString());
+        }
+    }
+
+    // Payload: flags (which nullable fields are present), then the fields in record order
+
+    static byte[] encode(AuditEvent e) {
+        var bytes = new ByteArrayOutputStream(128);
+        try (var out = new DataOutputStream(bytes)) {
+            int flags = (e.orgId() != null ? 1 : 0) | (e.actorUserId() != null ? 2 : 0)
+                    | (e.targetType() != null ? 4 : 0) | (e.targetId() != null ? 8 : 0) | (e.meta() != null ? 16 : 0);
+            out.writeByte(flags);
+            if (e.orgId() != null) {
+                out.writeLong(e.orgId().getMostSignificantBits());
+                out.writeLong(e.orgId().getLeastSignificantBits());
+            }
+            if (e.actorUserId() != null) {
+                out.writeLong(e.actorUserId().getMostSignificantBits());
+                out.writeLong(e.actorUserId().getLeastSignificantBits());
+            }
+            writeString(out, e.action());
+            if (e.targetType() != null)
+                writeString(out, e.targetType());
+            if (e.targetId() != null)
+                writeString(out, e.targetId());
+            if (e.meta() != null)
+                writeString(out, e.meta());
+            out.writeLong(e.createdAt().getEpochSecond());
+            out.writeInt(e.createdAt().getNano());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    static AuditEvent decode(byte[] payload) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int flags = in.readByte();
+            UUID org = (flags & 1) != 0 ? new UUID(in.readLong(), in.readLong()) : null;
+            UUID actor = (flags & 2) != 0 ? new UUID(in.readLong(), in.readLong()) : null;
+            String action = readString(in);
+            String targetType = (flags & 4) != 0 ? readString(in) : null;
+            String targetId = (flags & 8) != 0 ? readString(in) : null;
+            String meta = (flags & 16) != 0 ? readString(in) : null;
+            Instant createdAt = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            return new AuditEvent(org, actor, action, targetType, targetId, meta, createdAt);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] b = new byte[in.readInt()];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Events read from one segment, with the byte offset just past each one
+     */
+    static final class Batch {
+        static final Batch EMPTY = new Batch(null, List.of(), List.of());
+
+        final List<AuditEvent> events;
+        private final Segment segment;
+        private final List<Integer> ends;
+
+        private Batch(Segment segment, List<AuditEvent> events, List<Integer> ends) {
+            this.segment = segment;
+            this.events = events;
+            this.ends = ends;
+        }
+
+        boolean isEmpty() {
+            return events.isEmpty();
+        }
+    }
+
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buf;
+        // end is written under the journal lock; acked only by the replayer
+        volatile int end;
+        volatile int acked;
+        volatile boolean sealed;
+        int synced;
+        int syncedAck;
+
+        Segment(Path path, FileChannel channel, MappedByteBuffer buf) {
+            this.path = path;
+            this.channel = channel;
+            this.buf = buf;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.company.platform.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Keeps the monthly partitions of audit_logs in shape: makes sure the current
+ * month and the next premakeMonths exist, so the audit writer never meets a
+ * month without a partition, and removes months older than retentionMonths by
+ * detaching them (and dropping them unless keepDetached is set, e.g. to
+ * archive them first). Runs at startup and then daily; an advisory lock keeps
+ * instances from doing it concurrently.
+ */
+@Component
+public class AuditPartitionMaintenance {
+    private static final Logger log = LoggerFactory.getLogger(AuditPartitionMaintenance.class);
+
+    // arbitrary constant shared by all instances
+    private static final long LOCK_KEY = 0x6175646974L; // "audit"
+    private static final String PREFIX = "audit_logs_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final int premakeMonths;
+    private final int retentionMonths;
+    private final boolean keepDetached;
+
+    public AuditPartitionMaintenance(JdbcTemplate jdbc, PlatformTransactionManager txManager,
+            @Value("${audit.partitions.premakeMonths:3}") int premakeMonths,
+            @Value("${audit.partitions.retentionMonths:13}") int retentionMonths,
+            @Value("${audit.partitions.keepDetached:false}") boolean keepDetached) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.premakeMonths = premakeMonths;
+        this.retentionMonths = retentionMonths;
+        this.keepDetached = keepDetached;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${audit.partitions.cron:0 15 3 * * *}", zone = "UTC")
+    public void maintain() {
+        tx.executeWithoutResult(s -> {
+            Boolean locked = jdbc.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked))
+                return; // another instance is on it
+            YearMonth current = YearMonth.now(ZoneOffset.UTC);
+            for (int i = 0; i <= premakeMonths; i++)
+                jdbc.queryForObject("SELECT audit_logs_ensure_partition(?)", String.class,
+                        current.plusMonths(i).atDay(1));
+            if (retentionMonths > 0)
+                expire(current.minusMonths(retentionMonths));
+        });
+    }
+
+    /**
+     * Detach (and drop) every partition for a month before the cutoff month
+     */
+    private void expire(YearMonth cutoff) {
+        var partitions = jdbc.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'audit_logs'::regclass
+                """, String.class);
+        for (String name : partitions) {
+            if (!name.startsWith(PREFIX))
+                continue;
+            YearMonth month;
+            try {
+                month = YearMonth.parse(name.substring(PREFIX.length()), SUFFIX);
+            } catch (RuntimeException e) {
+                continue; // not one of ours
+            }
+            if (!month.isBefore(cutoff))
+                continue;
+            jdbc.execute("ALTER TABLE audit_logs DETACH PARTITION " + name);
+            if (!keepDetached)
+                jdbc.execute("DROP TABLE " + name);
+            log.info("Audit partition {} {} (retention {} months)", name, keepDetached ? "detached" : "dropped",
+                    retentionMonths);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.company.platform.audit;
+
+import com.company.platform.repo.AuditLogBatchRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit writer. Request threads only publish into a bounded
+ * lock-free ring buffer; a single background thread drains it and writes
+ * audit_logs in multi-row INSERT batches, so auditing costs the request path
+ * about one CAS.
+ *
+ * When the buffer is full the configured overflow policy applies:
+ * <ul>
+ * <li>BLOCK - wait up to blockTimeoutMs for room, then drop</li>
+ * <li>DROP - drop immediately and count it</li>
+ * <li>SPILL - append to a local file that is replayed once the buffer has room</li>
+ * </ul>
+ * On shutdown the writer stops last (lifecycle phase 0, after the web server
+ * has stopped taking requests) and flushes whatever is still buffered.
+ *
+ * With audit.journal.enabled, events go to the memory-mapped
+ * {@link AuditJournal} instead of the ring buffer, and the writer replays the
+ * journal into audit_logs. Events then survive a restart, and while the
+ * database is unreachable the writer backs off and the journal keeps growing,
+ * up to maxSegments. Overflow policies don't apply in this mode; an event that
+ * finds the journal full is dropped and counted. In both modes a batch that
+ * fails because the database is unreachable is retried later, not written row
+ * by row.
+ *
+ * Those guarantees only hold on durable storage, so audit.journal.dir has no
+ * default: it must be set while the journal is enabled, one directory per
+ * instance (a second process on the same directory fails on the lock), and
+ * startup fails if it lies under one of audit.journal.volatileRoots (by
+ * default java.io.tmpdir, /tmp, /var/tmp, /dev/shm and /run, which are often
+ * tmpfs or cleared at boot).
+ */
+@Component
+public class AuditPipeline implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(AuditPipeline.class);
+
+    public enum OverflowPolicy {
+        BLOCK, DROP, SPILL
+    }
+
+    // Postgres allows 32767 bind parameters per statement; each row takes 7
+    private static final int MAX_BATCH_SIZE = 4000;
+
+    private final AuditLogBatchRepo repo;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final OverflowPolicy policy;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long blockTimeoutNanos;
+    private final long shutdownTimeoutMillis;
+    private final AuditSpill spill;
+    private final AuditJournal journal;
+    private final long journalSyncMillis;
+    private final long maxBackoffNanos;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter spilled;
+    private final Counter failed;
+    private final Timer writeTimer;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+    private boolean outage; // writer thread only
+
+    public AuditPipeline(AuditLogBatchRepo repo, ObjectMapper mapper, MeterRegistry meters,
+            @Value("${audit.bufferCapacity:8192}") int bufferCapacity,
+            @Value("${audit.batchSize:500}") int batchSize,
+            @Value("${audit.flushIntervalMs:200}") long flushIntervalMs,
+            @Value("${audit.overflowPolicy:BLOCK}") OverflowPolicy policy,
+            @Value("${audit.blockTimeoutMs:50}") long blockTimeoutMs,
+            @Value("${audit.spillDir:${java.io.tmpdir}/platform-audit}") String spillDir,
+            @Value("${audit.shutdownTimeoutMs:10000}") long shutdownTimeoutMs,
+            @Value("${audit.retryMaxBackoffMs:5000}") long retryMaxBackoffMs,
+            @Value("${audit.journal.enabled:true}") boolean journalEnabled,
+            @Value("${audit.journal.dir:}") String journalDir,
+            @Value("${audit.journal.volatileRoots:${java.io.tmpdir},/tmp,/var/tmp,/dev/shm,/run}")
+            List<String> volatileRoots,
+            @Value("${audit.journal.segmentMb:64}") int journalSegmentMb,
+            @Value("${audit.journal.maxSegments:64}") int journalMaxSegments,
+            @Value("${audit.journal.syncIntervalMs:50}") long journalSyncMs) throws IOException {
+        this.repo = repo;
+        this.buffer = new AuditRingBuffer<>(bufferCapacity);
+        this.policy = policy;
+        this.batchSize = Math.min(batchSize, MAX_BATCH_SIZE);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.shutdownTimeoutMillis = shutdownTimeoutMs;
+        this.maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(retryMaxBackoffMs);
+        this.journal = journalEnabled
+                ? new AuditJournal(durableJournalDir(journalDir, volatileRoots), journalSegmentMb << 20,
+                        journalMaxSegments)
+                : null;
+        this.journalSyncMillis = journalSyncMs;
+        this.spill = journal == null && policy == OverflowPolicy.SPILL ? new AuditSpill(Path.of(spillDir), mapper)
+                : null;
+
+        this.written = Counter.builder("audit.events.written").register(meters);
+        this.dropped = Counter.builder("audit.events.dropped").register(meters);
+        this.spilled = Counter.builder("audit.events.spilled").register(meters);
+        this.failed = Counter.builder("audit.events.failed").register(meters);
+        this.writeTimer = Timer.builder("audit.write.batch").register(meters);
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size).register(meters);
+        if (journal != null) {
+            Gauge.builder("audit.journal.segments", journal, AuditJournal::segmentCount).register(meters);
+            Gauge.builder("audit.journal.pending.bytes", journal, AuditJournal::pendingBytes).register(meters);
+        }
+    }
+
+    /**
+     * The configured journal directory; a missing setting or a volatile
+     * location would quietly turn "survives a restart" into "usually doesn't"
+     */
+    static Path durableJournalDir(String dir, List<String> volatileRoots) {
+        if (dir == null || dir.isBlank())
+            throw new IllegalStateException(
+                    "audit.journal.dir must name a durable directory, or set audit.journal.enabled=false");
+        Path path = Path.of(dir).toAbsolutePath().normalize();
+        for (String volatileRoot : volatileRoots) {
+            if (volatileRoot.isBlank())
+                continue;
+            Path root = Path.of(volatileRoot.trim()).toAbsolutePath().normalize();
+            if (path.startsWith(root))
+                throw new IllegalStateException("audit.journal.dir " + path + " is under " + root
+                        + ", which may be tmpfs or cleared at boot; use a durable directory");
+        }
+        return path;
+    }
+
+    /**
+     * Queue an event for writing. Never touches the database; only blocks
+     * (briefly) under the BLOCK policy when the buffer is full.
+     */
+    public void publish(AuditEvent event) {
+        if (journal != null) {
+            try {
+                if (journal.append(event))
+                    return;
+            } catch (RuntimeException e) {
+                log.warn("Audit journal append failed: {}", e.toString());
+            }
+            dropped.increment();
+            return;
+        }
+        if (buffer.offer(event)) {
+            if (buffer.size() >= batchSize)
+                wakeWriter();
+            return;
+        }
+        wakeWriter();
+        switch (policy) {
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                while (!buffer.offer(event)) {
+                    if (System.nanoTime() - deadline > 0) {
+                        dropped.increment();
+                        return;
+                    }
+                    LockSupport.parkNanos(50_000);
+                }
+            }
+            case DROP -> dropped.increment();
+            case SPILL -> {
+                try {
+                    spill.append(event);
+                    spilled.increment();
+                } catch (IOException e) {
+                    dropped.increment();
+                    log.warn("Audit spill failed, event dropped: {}", e.toString());
+                }
+            }
+        }
+    }
+
+    private void wakeWriter() {
+        Thread w = writer;
+        if (w != null)
+            LockSupport.unpark(w);
+    }
+
+    private void runWriter() {
+        if (journal != null) {
+            replayJournal();
+            return;
+        }
+        var batch = new ArrayList<AuditEvent>(batchSize);
+        while (running) {
+            buffer.drainTo(batch, batchSize);
+            if (!batch.isEmpty()) {
+                write(batch, false);
+                batch.clear();
+                continue;
+            }
+            if (spill != null)
+                replaySpill();
+            LockSupport.parkNanos(this, flushIntervalNanos);
+        }
+        // Shutdown: flush what is left, buffered first, then anything spilled
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch, false);
+            batch.clear();
+        }
+        if (spill != null)
+            replaySpill();
+    }
+
+    private void replaySpill() {
+        try {
+            spill.seal();
+            for (Path file : spill.sealedFiles()) {
+                if (!spill.replay(file, batchSize, b -> write(b, true)))
+                    return; // database unavailable; the file keeps what wasn't written
+                if (running && buffer.size() >= batchSize)
+                    return; // live events first; the rest of the spill follows when idle
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Audit spill replay failed, will retry: {}", e.toString());
+        }
+    }
+
+    /**
+     * Replay the journal into audit_logs in order, acknowledging each batch
+     * once it is written - or the part of it that was, if the database went
+     * away partway through. Whatever is left at shutdown stays in the journal
+     * for the next start.
+     */
+    private void replayJournal() {
+        long backoff = flushIntervalNanos;
+        while (running) {
+            var batch = journal.read(batchSize);
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            }
+            int done = write(batch.events, true);
+            journal.ack(batch, done);
+            if (done == batch.events.size()) {
+                backoff = flushIntervalNanos;
+            } else {
+                LockSupport.parkNanos(this, backoff);
+                backoff = Math.min(backoff * 2, maxBackoffNanos);
+            }
+        }
+    }
+
+    /**
+     * Write one batch; if the batch as a whole is rejected, fall back to one
+     * row at a time so a single bad row (e.g. a vanished org) doesn't sink the
+     * rest. Returns how many leading events are settled (written, or dropped
+     * as failed). If the database can't be reached and retain is set, that is
+     * fewer than the batch and the caller keeps the rest to retry - never the
+     * rows already inserted; otherwise the rest is counted as failed.
+     */
+    private int write(List<AuditEvent> batch, boolean retain) {
+        long start = System.nanoTime();
+        try {
+            repo.insertAll(batch);
+            written.increment(batch.size());
+            if (outage) {
+                outage = false;
+                log.info("Audit database reachable again");
+            }
+            return batch.size();
+        } catch (RuntimeException e) {
+            if (unavailable(e)) {
+                if (!outage) {
+                    outage = true;
+                    log.warn("Audit database unavailable, {}: {}", retain ? "retrying" : "dropping batches",
+                            e.toString());
+                }
+                if (retain)
+                    return 0;
+                failed.increment(batch.size());
+                return batch.size();
+            }
+            log.warn("Audit batch of {} failed, writing rows one by one: {}", batch.size(), e.toString());
+            for (int i = 0; i < batch.size(); i++) {
+                AuditEvent event = batch.get(i);
+                try {
+                    repo.insertAll(List.of(event));
+                    written.increment();
+                } catch (RuntimeException rowError) {
+                    if (retain && unavailable(rowError))
+                        return i;
+                    failed.increment();
+                    log.warn("Audit event {} dropped: {}", event.action(), rowError.toString());
+                }
+            }
+            return batch.size();
+        } finally {
+            writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static boolean unavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof DataAccessResourceFailureException
+                || e instanceof RecoverableDataAccessException;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (journal != null)
+            journal.startSync(journalSyncMillis);
+        var t = new Thread(this::runWriter, "audit-writer");
+        t.setDaemon(true);
+        writer = t;
+        t.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread t = writer;
+        if (t == null)
+            return;
+        LockSupport.unpark(t);
+        try {
+            t.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (t.isAlive())
+            log.warn("Audit writer did not finish within {} ms, {} events left in buffer", shutdownTimeoutMillis,
+                    buffer.size());
+        writer = null;
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("Audit journal close failed: {}", e.toString());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop after the web server (graceful shutdown runs at a much higher phase)
+        return 0;
+    }
+}
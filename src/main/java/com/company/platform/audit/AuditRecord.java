@@ -0,0 +1,14 @@
+package com.company.platform.audit;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A stored audit_logs row as returned by the audit query API; meta is emitted
+ * as the JSON document it is, not as a string
+ */
+public record AuditRecord(long id, UUID orgId, UUID actorUserId, String action, String targetType,
+        String targetId, @JsonRawValue String meta, Instant createdAt) {
+}
@@ -0,0 +1,89 @@
+package com.company.platform.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer, after
+ * Vyukov's bounded MPMC queue. Each slot carries a sequence number telling
+ * producers and the consumer whose turn it is, so neither side takes a lock:
+ * producers claim a slot with one CAS on the tail, and offer fails fast when
+ * the buffer is full instead of waiting.
+ */
+final class AuditRingBuffer<E> {
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++)
+            sequences.set(i, i);
+    }
+
+    /**
+     * Add an element; false if the buffer is full
+     */
+    boolean offer(E e) {
+        long pos;
+        int idx;
+        while (true) {
+            pos = tail.get();
+            idx = (int) (pos & mask);
+            long diff = sequences.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1))
+                    break;
+            } else if (diff < 0) {
+                return false; // the consumer hasn't freed this slot yet: full
+            }
+            // else another producer took pos; retry with the new tail
+        }
+        slots.set(idx, e);
+        sequences.set(idx, pos + 1); // publish to the consumer
+        return true;
+    }
+
+    /**
+     * Take the next element, or null if none is ready. Single consumer only.
+     */
+    E poll() {
+        long pos = head.get();
+        int idx = (int) (pos & mask);
+        if (sequences.get(idx) != pos + 1)
+            return null;
+        E e = slots.get(idx);
+        slots.set(idx, null);
+        sequences.set(idx, pos + mask + 1); // hand the slot back to producers for the next lap
+        head.set(pos + 1);
+        return e;
+    }
+
+    /**
+     * Move up to max ready elements into the list. Single consumer only.
+     */
+    int drainTo(List<? super E> into, int max) {
+        int n = 0;
+        E e;
+        while (n < max && (e = poll()) != null) {
+            into.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
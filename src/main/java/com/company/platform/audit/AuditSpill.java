@@ -0,0 +1,119 @@
+package com.company.platform.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Overflow file for the SPILL policy: events that don't fit in the ring buffer
+ * are appended as NDJSON to spill.ndjson. When the buffer has room again the
+ * writer seals the file (renames it to a numbered .replay file, so appends go
+ * to a fresh one) and feeds it back in batches. Sealed files left over from a
+ * crash are picked up on the next start.
+ */
+final class AuditSpill {
+    private final Path dir;
+    private final Path active;
+    private final ObjectMapper mapper;
+    private Writer out;
+    private long appended;
+
+    AuditSpill(Path dir, ObjectMapper mapper) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.active = dir.resolve("spill.ndjson");
+        this.mapper = mapper;
+    }
+
+    synchronized void append(AuditEvent e) throws IOException {
+        if (out == null)
+            out = Files.newBufferedWriter(active, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        out.write(mapper.writeValueAsString(e));
+        out.write('\n');
+        appended++;
+    }
+
+    /**
+     * Make everything appended so far visible as a sealed .replay file
+     */
+    synchronized void seal() throws IOException {
+        if (out == null)
+            return;
+        out.close();
+        out = null;
+        if (appended > 0)
+            Files.move(active, dir.resolve("spill-" + System.nanoTime() + ".replay"), StandardCopyOption.ATOMIC_MOVE);
+        appended = 0;
+    }
+
+    synchronized boolean hasPending() {
+        return appended > 0;
+    }
+
+    List<Path> sealedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return new ArrayList<>(files.filter(p -> p.getFileName().toString().endsWith(".replay"))
+                    .sorted(Comparator.comparing(Path::getFileName))
+                    .toList());
+        }
+    }
+
+    /**
+     * Feed a sealed file to the sink in batches, then delete it. The sink
+     * returns how many leading events of a batch it settled; if that is short
+     * of the batch, the file is rewritten to hold only the unsettled events
+     * (replayed later, so nothing is written twice) and false is returned.
+     */
+    boolean replay(Path file, int batchSize, ToIntFunction<List<AuditEvent>> sink) throws IOException {
+        try (var in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            var batch = new ArrayList<AuditEvent>(batchSize);
+            var lines = new ArrayList<String>(batchSize);
+            while (true) {
+                String line = in.readLine();
+                if (line != null) {
+                    if (line.isBlank())
+                        continue;
+                    batch.add(mapper.readValue(line, AuditEvent.class));
+                    lines.add(line);
+                    if (batch.size() < batchSize)
+                        continue;
+                } else if (batch.isEmpty()) {
+                    break;
+                }
+                int done = sink.applyAsInt(batch);
+                if (done < batch.size()) {
+                    keepRest(file, lines.subList(done, lines.size()), in);
+                    return false;
+                }
+                if (line == null)
+                    break;
+                batch = new ArrayList<>(batchSize);
+                lines = new ArrayList<>(batchSize);
+            }
+        }
+        Files.delete(file);
+        return true;
+    }
+
+    /**
+     * Replace file with the given lines followed by the unread rest of it
+     */
+    private void keepRest(Path file, List<String> unsettled, BufferedReader unread) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (var out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (String l : unsettled) {
+                out.write(l);
+                out.write('\n');
+            }
+            unread.transferTo(out);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,80 @@
+package com.company.platform.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for reference data: roles, organizations and
+ * the by-name built-in role lookup, kept in Caffeine behind JCache. Every
+ * region is created here with an explicit size and TTL (l2cache.*) and handed
+ * to Hibernate, which is set to fail on a region that isn't, so nothing ends
+ * up in an unbounded default cache.
+ * <p>
+ * The caches are per node and only see this node's writes. Org roles are
+ * editable, so the roles region has a short TTL (how long another node may
+ * show an edited role) and grant checks read the mask past the cache
+ * ({@code RoleRepo.findAssignable}).
+ */
+@Configuration
+public class L2CacheConfig {
+    public static final String ROLES = "roles";
+    public static final String ORGANIZATIONS = "organizations";
+    public static final String ROLE_QUERIES = "role-queries";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager l2CacheManager(
+            @Value("${l2cache.roles.maxSize:1000}") long rolesMaxSize,
+            @Value("${l2cache.roles.ttlSeconds:60}") long rolesTtl,
+            @Value("${l2cache.organizations.maxSize:50000}") long orgsMaxSize,
+            @Value("${l2cache.organizations.ttlSeconds:600}") long orgsTtl,
+            @Value("${l2cache.queries.maxSize:1000}") long queriesMaxSize,
+            @Value("${l2cache.queries.ttlSeconds:3600}") long queriesTtl) {
+        var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // a manager of our own, not the JVM-wide default one
+        var manager = provider.getCacheManager(URI.create("platform-l2-" + UUID.randomUUID()),
+                getClass().getClassLoader());
+        manager.createCache(ROLES, region(rolesMaxSize, rolesTtl));
+        manager.createCache(ORGANIZATIONS, region(orgsMaxSize, orgsTtl));
+        manager.createCache(ROLE_QUERIES, region(queriesMaxSize, queriesTtl));
+        manager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queriesMaxSize, queriesTtl));
+        // tracks when each table last changed so stale query results are ignored;
+        // one entry per table, and it must never evict or expire
+        manager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, region(0, 0));
+        return manager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer l2CacheRegions(CacheManager l2CacheManager) {
+        return props -> {
+            props.put(ConfigSettings.CACHE_MANAGER, l2CacheManager);
+            props.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * 0 = unbounded / no expiry
+     */
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, long ttlSeconds) {
+        var config = new CaffeineConfiguration<>();
+        config.setStoreByValue(false);
+        if (maxSize > 0)
+            config.setMaximumSize(OptionalLong.of(maxSize));
+        if (ttlSeconds > 0)
+            config.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        return config;
+    }
+}
@@ -0,0 +1,58 @@
+package com.company.platform.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-region second-level cache meters, read from Hibernate's statistics:
+ * l2cache.requests{region, result=hit|miss}, l2cache.puts{region} and
+ * l2cache.hit.ratio{region} (over the lifetime of the process).
+ */
+@Component
+public class L2CacheMetrics implements MeterBinder {
+    private static final List<String> REGIONS = List.of(L2CacheConfig.ROLES, L2CacheConfig.ORGANIZATIONS,
+            L2CacheConfig.ROLE_QUERIES);
+
+    private final Statistics stats;
+
+    public L2CacheMetrics(EntityManagerFactory emf) {
+        this.stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : REGIONS) {
+            FunctionCounter.builder("l2cache.requests", stats, s -> count(s, region, CacheRegionStatistics::getHitCount))
+                    .tags("region", region, "result", "hit").register(registry);
+            FunctionCounter.builder("l2cache.requests", stats, s -> count(s, region, CacheRegionStatistics::getMissCount))
+                    .tags("region", region, "result", "miss").register(registry);
+            FunctionCounter.builder("l2cache.puts", stats, s -> count(s, region, CacheRegionStatistics::getPutCount))
+                    .tags("region", region).register(registry);
+            Gauge.builder("l2cache.hit.ratio", stats, s -> hitRatio(s, region))
+                    .tags("region", region).register(registry);
+        }
+    }
+
+    private static double count(Statistics stats, String region, ToLongFunction<CacheRegionStatistics> f) {
+        var r = stats.getCacheRegionStatistics(region);
+        return r == null ? 0 : f.applyAsLong(r);
+    }
+
+    private static double hitRatio(Statistics stats, String region) {
+        var r = stats.getCacheRegionStatistics(region);
+        if (r == null)
+            return 0;
+        long total = r.getHitCount() + r.getMissCount();
+        return total == 0 ? 0 : (double) r.getHitCount() / total;
+    }
+}
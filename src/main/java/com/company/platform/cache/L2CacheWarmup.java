@@ -0,0 +1,50 @@
+package com.company.platform.cache;
+
+import com.company.platform.repo.OrganizationRepo;
+import com.company.platform.repo.RoleRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills the second-level cache at startup, so the first invites and org-owner
+ * creations after a deploy don't each go to the database: the built-in role
+ * lookups (entity and query cache) and the most recently created organizations.
+ */
+@Component
+public class L2CacheWarmup {
+    private static final Logger log = LoggerFactory.getLogger(L2CacheWarmup.class);
+    private static final List<String> BUILT_IN_ROLES = List.of("OWNER", "ADMIN", "USER");
+
+    private final RoleRepo roles;
+    private final OrganizationRepo orgs;
+    private final int organizations;
+
+    public L2CacheWarmup(RoleRepo roles, OrganizationRepo orgs,
+            @Value("${l2cache.warmup.organizations:1000}") int organizations) {
+        this.roles = roles;
+        this.orgs = orgs;
+        this.organizations = organizations;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        int roleCount = 0;
+        for (String name : BUILT_IN_ROLES)
+            if (roles.findByNameAndOrgIdIsNull(name).isPresent())
+                roleCount++;
+        int orgCount = organizations <= 0 ? 0
+                : orgs.findAll(PageRequest.of(0, organizations, Sort.by(Sort.Direction.DESC, "createdAt")))
+                        .getNumberOfElements();
+        log.info("L2 cache warmed with {} roles and {} organizations in {} ms", roleCount, orgCount,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
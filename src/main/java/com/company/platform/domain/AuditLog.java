@@ -2,13 +2,19 @@ package com.company.platform.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import java.time.Instant;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
 @Table(name = "audit_logs", indexes = {
-        @Index(name = "idx_audit_org_created", columnList = "org_id,created_at"),
-        @Index(name = "idx_audit_actor_created", columnList = "actor_user_id,created_at")
+        @Index(name = "idx_audit_org_created", columnList = "org_id,created_at,id"),
+        @Index(name = "idx_audit_actor_created", columnList = "actor_user_id,created_at,id"),
+        @Index(name = "idx_audit_created", columnList = "created_at,id")
+        // plus idx_audit_meta, a GIN (jsonb_path_ops) index on meta; see V11
 })
 @Getter
 @Setter
@@ -27,8 +33,9 @@ public class AuditLog {
     private String targetType;
     @Column(name = "target_id")
     private String targetId;
-    @Column(columnDefinition = "text")
-    private String meta;
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> meta;
     @Column(name = "created_at", nullable = false)
     private Instant createdAt = Instant.now();
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.company.platform.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -17,10 +20,15 @@ public class Invite {
     private UUID orgId;
     @Column(nullable = false)
     private String email;
-    @Column(name = "temp_password_hash", nullable = false)
-    private String tempPasswordHash;
+    @Column(name = "temp_password_hash")
+    private String tempPasswordHash; // password-mode invites only
+    @JsonIgnore
+    @Column(name = "token_hash", unique = true)
+    private byte[] tokenHash; // SHA-256 of the invite token; the token itself is never stored
 
+    // loaded by id, so it comes from the second-level cache instead of a join
     @ManyToOne(optional = false)
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "role_id")
     private Role role;
 
@@ -0,0 +1,27 @@
+package com.company.platform.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "jwt_signing_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+public class JwtSigningKey {
+    @Id
+    private String kid;
+    @Column(nullable = false)
+    private String alg; // ES256 / EdDSA
+    @Column(name = "private_key", nullable = false)
+    private byte[] privateKey;
+    @Column(name = "public_key", nullable = false)
+    private byte[] publicKey;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+    @Column(name = "activates_at", nullable = false)
+    private Instant activatesAt;
+    @Column(name = "expires_at")
+    private Instant expiresAt; // null => no successor yet
+}
@@ -2,6 +2,8 @@ package com.company.platform.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -18,7 +20,9 @@ public class OrgMembership {
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
+    // loaded by id, so it comes from the second-level cache instead of a join
     @ManyToOne(optional = false)
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "role_id")
     private Role role;
 
@@ -1,12 +1,17 @@
 package com.company.platform.domain;
 
+import com.company.platform.cache.L2CacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
 @Table(name = "organizations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = L2CacheConfig.ORGANIZATIONS)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,6 +18,8 @@ public class PlatformOwner {
     @Column(name = "password_hash", nullable = false)
     private String passwordHash;
     private String displayName;
+    @Column(name = "token_epoch", nullable = false)
+    private long tokenEpoch; // bumped to revoke every token issued before
     @Column(name = "created_at", nullable = false)
     private Instant createdAt = Instant.now();
 }
\ No newline at end of file
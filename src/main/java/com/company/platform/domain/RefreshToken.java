@@ -0,0 +1,36 @@
+package com.company.platform.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "refresh_tokens")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RefreshToken {
+    @Id
+    private UUID id = UUID.randomUUID();
+    @Column(name = "token_hash", nullable = false, unique = true)
+    private byte[] tokenHash; // SHA-256 of the opaque token; the token itself is never stored
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+    @Column(name = "subject_id", nullable = false)
+    private UUID subjectId;
+    @Column(name = "sub_type", nullable = false)
+    private String subType;
+    @Column(nullable = false)
+    private String email;
+    @Column(name = "token_epoch", nullable = false)
+    private long tokenEpoch;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+    @Column(name = "revoked_at")
+    private Instant revokedAt;
+    @Column(name = "replaced_by")
+    private UUID replacedBy;
+}
@@ -1,23 +1,31 @@
 package com.company.platform.domain;
 
+import com.company.platform.cache.L2CacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "roles", uniqueConstraints = @UniqueConstraint(columnNames = { "org_id", "name" }))
+@Table(name = "roles") // name is unique per org ignoring case, see V14
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = L2CacheConfig.ROLES)
 @Getter
 @Setter
 @NoArgsConstructor
 public class Role {
     @Id
-    private UUID id;
+    private UUID id = UUID.randomUUID();
     @Column(name = "org_id")
-    private UUID orgId; // null => system role (OWNER/ADMIN/USER)
+    private UUID orgId; // null => system role (OWNER/ADMIN/USER), else defined by that org
     @Column(nullable = false)
     private String name;
     private String description;
+    // Permission bits, see guard.Permission
+    @Column(nullable = false)
+    private long permissions;
     @Column(name = "created_at", nullable = false)
-    private Instant createdAt;
+    private Instant createdAt = Instant.now();
 }
\ No newline at end of file
@@ -21,6 +21,8 @@ public class User {
     private String tempPasswordHash;
     @Column(name = "must_change_password", nullable = false)
     private boolean mustChangePassword = true;
+    @Column(name = "token_epoch", nullable = false)
+    private long tokenEpoch; // bumped to revoke every token issued before
     private String displayName;
     private String avatarUrl;
     @Column(name = "created_at", nullable = false)
@@ -0,0 +1,106 @@
+package com.company.platform.guard;
+
+import com.company.platform.repo.OrgMembershipRepo;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Resolved permission masks per (org, user), so a repeat {@link OrgGuard}
+ * check makes no database call. "Not a member" is cached too; callers probing
+ * orgs they don't belong to would otherwise hit the database every time.
+ * <p>
+ * Services invalidate entries locally when a membership or an org role
+ * changes. Other nodes pick the change up when their entry expires
+ * ({@code guard.membershipCache.ttlSeconds}).
+ */
+@Component
+public class MembershipCache {
+
+    private record Key(UUID orgId, UUID userId) {
+    }
+
+    private final LoadingCache<Key, OptionalLong> entries;
+
+    public MembershipCache(OrgMembershipRepo memberships,
+            @Value("${guard.membershipCache.ttlSeconds:30}") long ttlSeconds,
+            @Value("${guard.membershipCache.maxSize:100000}") long maxSize,
+            MeterRegistry meters) {
+        Timer load = Timer.builder("guard.membership.cache.load")
+                .description("Database lookups of a member's permissions on a cache miss")
+                .register(meters);
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(k -> load.record(() -> memberships.findPermissions(k.orgId(), k.userId())
+                        .map(OptionalLong::of)
+                        .orElse(OptionalLong.empty())));
+
+        FunctionCounter.builder("guard.membership.cache.requests", entries, c -> c.stats().hitCount())
+                .tag("result", "hit").register(meters);
+        FunctionCounter.builder("guard.membership.cache.requests", entries, c -> c.stats().missCount())
+                .tag("result", "miss").register(meters);
+        Gauge.builder("guard.membership.cache.hit.ratio", entries, c -> c.stats().hitRate()).register(meters);
+        Gauge.builder("guard.membership.cache.size", entries, LoadingCache::estimatedSize).register(meters);
+    }
+
+    /**
+     * The member's permission mask, or empty if the user is not a member of
+     * the org
+     */
+    public OptionalLong permissions(UUID orgId, UUID userId) {
+        return entries.get(new Key(orgId, userId));
+    }
+
+    /**
+     * Drop the entry of one membership, e.g. after it was created
+     */
+    public void invalidate(UUID orgId, UUID userId) {
+        afterCommit(() -> entries.invalidate(new Key(orgId, userId)));
+    }
+
+    /**
+     * Drop every entry of an org, e.g. after one of its roles changed. Role
+     * changes are rare, so a scan beats keeping a per-role index.
+     */
+    public void invalidateOrg(UUID orgId) {
+        afterCommit(() -> entries.asMap().keySet().removeIf(k -> k.orgId().equals(orgId)));
+    }
+
+    /**
+     * Inside a transaction, defer until commit so a concurrent check cannot
+     * re-cache the old value
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    long getHitCount() {
+        return entries.stats().hitCount();
+    }
+
+    long getMissCount() {
+        return entries.stats().missCount();
+    }
+}
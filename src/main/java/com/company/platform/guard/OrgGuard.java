@@ -1,26 +1,31 @@
 package com.company.platform.guard;
 
-import com.company.platform.domain.OrgMembership;
 import com.company.platform.err.ForbiddenException;
-import com.company.platform.repo.OrgMembershipRepo;
 import org.springframework.stereotype.Component;
 import java.util.*;
 
+/**
+ * Authorises org-scoped actions. A role is a precomputed permission mask, so
+ * a check is a lookup of the caller's mask (usually served by
+ * {@link MembershipCache}) plus one bitwise AND.
+ */
 @Component
 public class OrgGuard {
-    private final OrgMembershipRepo memberships;
+    private final MembershipCache memberships;
 
-    public OrgGuard(OrgMembershipRepo memberships) {
+    public OrgGuard(MembershipCache memberships) {
         this.memberships = memberships;
     }
 
-    public OrgMembership requireRole(UUID userId, UUID orgId, String... allowedRoles) {
-        var m = memberships.findByOrgIdAndUserId(orgId, userId)
+    /**
+     * Require every permission in required (OR together Permission.bit values).
+     * Returns the caller's whole mask, e.g. to check what they may grant.
+     */
+    public long require(UUID userId, UUID orgId, long required) {
+        long granted = memberships.permissions(orgId, userId)
                 .orElseThrow(() -> new ForbiddenException("Not a member of this organization"));
-        String role = m.getRole().getName();
-        boolean ok = Arrays.stream(allowedRoles).anyMatch(role::equals);
-        if (!ok)
-            throw new ForbiddenException("Insufficient role");
-        return m;
+        if ((granted & required) != required)
+            throw new ForbiddenException("Insufficient permissions");
+        return granted;
     }
-}
\ No newline at end of file
+}
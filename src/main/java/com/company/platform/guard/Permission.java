@@ -0,0 +1,61 @@
+package com.company.platform.guard;
+
+import com.company.platform.err.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Org-scoped permissions. Each one owns a fixed bit of a role's 64-bit mask
+ * (roles.permissions); the bit index is stored data, so never renumber or
+ * reuse one.
+ */
+public enum Permission {
+    INVITE_CREATE(0),
+    AUDIT_READ(1),
+    ROLE_READ(2),
+    ROLE_MANAGE(3);
+
+    /**
+     * Every permission defined now and later; what OWNER holds
+     */
+    public static final long ALL = -1L;
+
+    public final long bit;
+
+    Permission(int index) {
+        this.bit = 1L << index;
+    }
+
+    /**
+     * Compile permission names into a mask
+     */
+    public static long mask(Collection<String> names) {
+        long mask = 0;
+        for (String name : names) {
+            try {
+                mask |= valueOf(name).bit;
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new BadRequestException("Unknown permission: " + name);
+            }
+        }
+        return mask;
+    }
+
+    public static List<String> names(long mask) {
+        var names = new ArrayList<String>();
+        for (Permission p : values())
+            if ((mask & p.bit) != 0)
+                names.add(p.name());
+        return names;
+    }
+
+    /**
+     * Whether a holder of granted may hand out mask (to a role or an invitee):
+     * only permissions they hold themselves
+     */
+    public static boolean canGrant(long granted, long mask) {
+        return (mask & ~granted) == 0;
+    }
+}
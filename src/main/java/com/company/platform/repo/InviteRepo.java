@@ -1,13 +1,55 @@
 package com.company.platform.repo;
 
 import com.company.platform.domain.Invite;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
 import java.util.*;
 
 public interface InviteRepo extends JpaRepository<Invite, UUID> {
     Optional<Invite> findByIdAndStatus(UUID id, String status);
 
-    Optional<Invite> findByEmailAndStatus(String email, String status);
+    @Query("select i from Invite i join fetch i.role where i.email = :email and i.status = 'PENDING'")
+    List<Invite> findPendingByEmail(@Param("email") String email);
 
-    Optional<Invite> findByEmailAndOrgIdAndStatus(String email, UUID orgId, String status);
-}
\ No newline at end of file
+    @Query("select i.email from Invite i where i.orgId = :orgId and i.status = 'PENDING' and i.email in :emails")
+    List<String> findPendingEmails(@Param("orgId") UUID orgId, @Param("emails") Collection<String> emails);
+
+    @Modifying
+    @Query("update Invite i set i.status = 'ACCEPTED', i.acceptedAt = :at where i.id in :ids and i.status = 'PENDING'")
+    int markAccepted(@Param("ids") Collection<UUID> ids, @Param("at") Instant at);
+
+    /**
+     * Insert a PENDING invite unless the org already has one pending for the
+     * email; returns 0 in that case. Relies on uniq_invites_pending_org_email.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "invites"))
+    @Query(value = """
+            INSERT INTO invites (id, org_id, email, temp_password_hash, token_hash, role_id,
+                                 expires_at, invited_by_user_id, status)
+            VALUES (:#{#i.id}, :#{#i.orgId}, :#{#i.email}, :#{#i.tempPasswordHash},
+                    CAST(:#{#i.tokenHash} AS bytea), :#{#i.role.id},
+                    :#{#i.expiresAt}, :#{#i.invitedByUserId}, 'PENDING')
+            ON CONFLICT (org_id, email) WHERE status = 'PENDING' DO NOTHING
+            """, nativeQuery = true)
+    int insertPendingIfAbsent(@Param("i") Invite invite);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "invites"))
+    @Query(value = """
+            UPDATE invites SET status = 'EXPIRED'
+            WHERE id IN (SELECT id FROM invites
+                         WHERE status = 'PENDING' AND expires_at < now()
+                         LIMIT :limit
+                         FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int expirePendingBatch(@Param("limit") int limit);
+}
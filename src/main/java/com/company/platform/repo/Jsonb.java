@@ -0,0 +1,27 @@
+package com.company.platform.repo;
+
+import org.postgresql.util.PGobject;
+
+import java.sql.SQLException;
+
+/**
+ * Binds JSON text as a jsonb parameter, so statements need no CAST and the
+ * planner sees a jsonb value (and can match it against the GIN index on meta)
+ */
+final class Jsonb {
+    private Jsonb() {
+    }
+
+    static PGobject of(String json) {
+        if (json == null)
+            return null;
+        var value = new PGobject();
+        value.setType("jsonb");
+        try {
+            value.setValue(json);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e); // PGobject.setValue doesn't actually throw
+        }
+        return value;
+    }
+}
@@ -0,0 +1,37 @@
+package com.company.platform.repo;
+
+import com.company.platform.domain.JwtSigningKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.Instant;
+import java.util.*;
+
+public interface JwtSigningKeyRepo extends JpaRepository<JwtSigningKey, String> {
+    @Query("select k from JwtSigningKey k where k.expiresAt is null or k.expiresAt > :now")
+    List<JwtSigningKey> findUnexpired(@Param("now") Instant now);
+
+    Optional<JwtSigningKey> findFirstByAlgOrderByActivatesAtDesc(String alg);
+
+    @Modifying
+    @Query("update JwtSigningKey k set k.expiresAt = :expiresAt where k.expiresAt is null and k.kid <> :kid")
+    int expireAllExcept(@Param("kid") String kid, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("update JwtSigningKey k set k.expiresAt = :expiresAt where k.expiresAt is null")
+    int expireAll(@Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("delete from JwtSigningKey k where k.expiresAt < :before")
+    int deleteExpiredBefore(@Param("before") Instant before);
+
+    // Serialises rotation across nodes for the rest of the transaction
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "jwt_signing_keys"))
+    @Query(value = "LOCK TABLE jwt_signing_keys IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRotation();
+}
@@ -2,10 +2,18 @@ package com.company.platform.repo;
 
 import com.company.platform.domain.OrgMembership;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.*;
 
 public interface OrgMembershipRepo extends JpaRepository<OrgMembership, UUID> {
     Optional<OrgMembership> findByOrgIdAndUserId(UUID orgId, UUID userId);
 
     List<OrgMembership> findByUserId(UUID userId);
+
+    /**
+     * The permission mask of the member's role, without loading either entity
+     */
+    @Query("select r.permissions from OrgMembership m join m.role r where m.orgId = :orgId and m.userId = :userId")
+    Optional<Long> findPermissions(@Param("orgId") UUID orgId, @Param("userId") UUID userId);
 }
\ No newline at end of file
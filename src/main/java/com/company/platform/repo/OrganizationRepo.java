@@ -2,8 +2,13 @@ package com.company.platform.repo;
 
 import com.company.platform.domain.Organization;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.*;
 
 public interface OrganizationRepo extends JpaRepository<Organization, UUID> {
     Optional<Organization> findBySlug(String slug);
+
+    @Query("select o.slug from Organization o where o.slug in :slugs")
+    List<String> findExistingSlugs(@Param("slugs") Collection<String> slugs);
 }
\ No newline at end of file
@@ -2,8 +2,18 @@ package com.company.platform.repo;
 
 import com.company.platform.domain.PlatformOwner;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.*;
 
 public interface PlatformOwnerRepo extends JpaRepository<PlatformOwner, UUID> {
     Optional<PlatformOwner> findByEmailIgnoreCase(String email);
+
+    @Query("select o.tokenEpoch from PlatformOwner o where o.id = :id")
+    Optional<Long> findTokenEpochById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("update PlatformOwner o set o.tokenEpoch = o.tokenEpoch + 1 where o.id = :id")
+    int incrementTokenEpoch(@Param("id") UUID id);
 }
\ No newline at end of file
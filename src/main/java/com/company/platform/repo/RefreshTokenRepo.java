@@ -0,0 +1,38 @@
+package com.company.platform.repo;
+
+import com.company.platform.domain.RefreshToken;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.*;
+
+public interface RefreshTokenRepo extends JpaRepository<RefreshToken, UUID> {
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    // Conditional so that two concurrent uses of the same token can't both win
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now, t.replacedBy = :replacedBy where t.id = :id and t.revokedAt is null")
+    int markRotated(@Param("id") UUID id, @Param("replacedBy") UUID replacedBy, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.familyId = :familyId and t.revokedAt is null")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_tokens"))
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (SELECT id FROM refresh_tokens
+                         WHERE expires_at < now()
+                         LIMIT :limit
+                         FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("limit") int limit);
+}
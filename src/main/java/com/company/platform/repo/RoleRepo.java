@@ -1,9 +1,34 @@
 package com.company.platform.repo;
 
+import com.company.platform.cache.L2CacheConfig;
 import com.company.platform.domain.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import java.util.*;
 
 public interface RoleRepo extends JpaRepository<Role, UUID> {
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = L2CacheConfig.ROLE_QUERIES) })
     Optional<Role> findByNameAndOrgIdIsNull(String name); // OWNER/ADMIN/USER
+
+    Optional<Role> findByIdAndOrgId(UUID id, UUID orgId);
+
+    /**
+     * A role that can be given out in the org: one of its own or a built-in,
+     * matched ignoring case (names are unique per org ignoring case and org
+     * roles can't take a built-in name, so there is at most one). Read
+     * past the second-level cache: org roles are editable and that cache is
+     * per node, while grant checks need the current permission mask.
+     */
+    @Query("select r from Role r where lower(r.name) = lower(:name) and (r.orgId = :orgId or r.orgId is null)")
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    Optional<Role> findAssignable(@Param("orgId") UUID orgId, @Param("name") String name);
+
+    @Query("select r from Role r where r.orgId = :orgId or r.orgId is null order by r.orgId nulls first, r.name")
+    List<Role> findAvailable(@Param("orgId") UUID orgId);
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.company.platform.repo;
+
+import com.company.platform.domain.TokenRevocation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TokenRevocationRepo extends JpaRepository<TokenRevocation, Long> {
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "token_revocations"))
+    @Query(value = """
+            INSERT INTO token_revocations (digest, expires_at, revoked_at)
+            VALUES (:digest, :expiresAt, now())
+            ON CONFLICT (digest) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("digest") byte[] digest, @Param("expiresAt") Instant expiresAt);
+
+    // Keyset page over (revoked_at, id) for incremental replica catch-up
+    @Query(value = """
+            SELECT * FROM token_revocations
+            WHERE expires_at > now()
+              AND (revoked_at, id) > (:revokedAt, :id)
+            ORDER BY revoked_at, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<TokenRevocation> findRevokedAfter(@Param("revokedAt") Instant revokedAt, @Param("id") long id,
+            @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "token_revocations"))
+    @Query(value = """
+            DELETE FROM token_revocations
+            WHERE id IN (SELECT id FROM token_revocations
+                         WHERE expires_at < now()
+                         LIMIT :limit
+                         FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("limit") int limit);
+}
@@ -2,8 +2,22 @@ package com.company.platform.repo;
 
 import com.company.platform.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.*;
 
 public interface UserRepo extends JpaRepository<User, UUID> {
     Optional<User> findByEmailIgnoreCase(String email);
+
+    // email is citext, so the IN list matches case-insensitively
+    @Query("select lower(u.email) from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.tokenEpoch from User u where u.id = :id")
+    Optional<Long> findTokenEpochById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("update User u set u.tokenEpoch = u.tokenEpoch + 1 where u.id = :id")
+    int incrementTokenEpoch(@Param("id") UUID id);
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.company.platform.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.*;
+import jakarta.servlet.http.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive concurrency limit in front of the whole API (gradient algorithm).
+ * <p>
+ * The limit follows observed latency: while the short-term average RTT stays
+ * close to the long-term baseline the limit grows, and when requests start
+ * queueing behind a slow database or saturated CPU it shrinks. Requests over
+ * the limit are rejected straight away with 503 instead of waiting in Tomcat.
+ * Each priority class may only use a share of the limit, so password-hashing
+ * logins are shed first and cheap {@code /me} reads last.
+ */
+@Component
+public class AdaptiveConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    enum Priority {
+        CHEAP_READ(1.0), NORMAL(0.9), ADMIN(0.8), HASHING(0.5);
+
+        final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final double smoothing;
+    private final double rttTolerance;
+
+    private volatile double limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    // Per-window RTT accumulation; folded into the limit by whoever takes the lock
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile long nextUpdate;
+    private double longRtt; // guarded by updateLock
+
+    private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+
+    public AdaptiveConcurrencyLimitFilter(
+            @Value("${security.concurrency.enabled:true}") boolean enabled,
+            @Value("${security.concurrency.initialLimit:100}") int initialLimit,
+            @Value("${security.concurrency.minLimit:10}") int minLimit,
+            @Value("${security.concurrency.maxLimit:1000}") int maxLimit,
+            @Value("${security.concurrency.windowMillis:100}") long windowMillis,
+            @Value("${security.concurrency.smoothing:0.2}") double smoothing,
+            @Value("${security.concurrency.rttTolerance:1.5}") double rttTolerance,
+            MeterRegistry meters) {
+        this.enabled = enabled;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowMillis * 1_000_000;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.nextUpdate = System.nanoTime() + windowNanos;
+
+        Gauge.builder("http.concurrency.limit", this, f -> f.limit).register(meters);
+        Gauge.builder("http.concurrency.inflight", inflight, AtomicInteger::get).register(meters);
+        for (Priority p : Priority.values())
+            rejections.put(p, Counter.builder("http.concurrency.rejected")
+                    .tag("priority", p.name().toLowerCase()).register(meters));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        // Health checks must keep answering while we shed load
+        return !enabled || req.getRequestURI().startsWith("/actuator/health") || isStreaming(req.getRequestURI());
+    }
+
+    /**
+     * Responses streamed for minutes at the client's pace: they would hold a
+     * slot all along and skew the RTT gradient. Exports bound themselves
+     * (audit.export.maxRows / maxSeconds); imports are platform-owner only.
+     */
+    static boolean isStreaming(String path) {
+        return path.endsWith("/audit/export") || path.equals("/platform/orgs/import");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = classify(req);
+        if (!tryAcquire(priority)) {
+            rejections.get(priority).increment();
+            res.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            res.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getWriter().write("{\"error\":\"Server is overloaded, retry later\"}");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            inflight.decrementAndGet();
+            onSample(System.nanoTime() - start);
+        }
+    }
+
+    static Priority classify(HttpServletRequest req) {
+        String path = req.getRequestURI();
+        if (path.startsWith("/me/"))
+            return Priority.CHEAP_READ;
+        if (path.equals("/auth/login") || path.equals("/platform/auth/login") || path.equals("/auth/change-password"))
+            return Priority.HASHING;
+        if (path.startsWith("/platform/"))
+            return Priority.ADMIN;
+        return Priority.NORMAL;
+    }
+
+    private boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share));
+        while (true) {
+            int cur = inflight.get();
+            if (cur >= allowed)
+                return false;
+            if (inflight.compareAndSet(cur, cur + 1))
+                return true;
+        }
+    }
+
+    private void onSample(long rttNanos) {
+        windowRttSum.add(rttNanos);
+        windowSamples.increment();
+        long now = System.nanoTime();
+        if (now < nextUpdate || !updateLock.tryLock())
+            return;
+        try {
+            if (now < nextUpdate)
+                return;
+            nextUpdate = now + windowNanos;
+            long samples = windowSamples.sumThenReset();
+            long sum = windowRttSum.sumThenReset();
+            if (samples == 0)
+                return;
+            updateLimit((double) sum / samples);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    // Gradient2: compare this window's RTT against a slow-moving baseline
+    private void updateLimit(double shortRtt) {
+        if (longRtt == 0)
+            longRtt = shortRtt;
+        else
+            longRtt = longRtt * 0.99 + shortRtt * 0.01;
+        // When latency has clearly recovered, let the baseline catch up quickly
+        if (longRtt / shortRtt > 2)
+            longRtt *= 0.95;
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double current = limit;
+        double queueSize = Math.sqrt(current);
+        double target = current * gradient + queueSize;
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
@@ -2,7 +2,7 @@ package com.company.platform.security;
 
 import java.util.UUID;
 
-public record CurrentUser(UUID id, String email, String subType) {
+public record CurrentUser(UUID id, String email, String subType, long tokenEpoch) {
     public boolean isPlatformOwner() {
         return "PLATFORM".equals(subType);
     }
@@ -0,0 +1,149 @@
+package com.company.platform.security;
+
+import com.company.platform.domain.Invite;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Issues and checks the one-time secrets handed out with invites.
+ *
+ * In token mode (the default) the secret is a 256-bit random token and only
+ * its SHA-256 digest is stored, under a unique index. A token has full entropy,
+ * so a fast digest is as safe as a slow hash, and accepting an invite is one
+ * indexed lookup plus a constant-time compare. Password mode keeps the older
+ * 12-character temp passwords hashed with the password encoder. Invites issued
+ * in either mode are accepted regardless of the current setting.
+ */
+@Component
+public class InviteCredentials {
+    /**
+     * Marks a token digest stored in users.temp_password_hash, to tell it apart from encoder hashes
+     */
+    private static final String TOKEN_HASH_PREFIX = "{sha256}";
+
+    /**
+     * Stored in users.password_hash until the user sets a real password; matches nothing
+     */
+    public static final String UNUSABLE_PASSWORD = "!";
+
+    // Password generation characters (excluding ambiguous characters like 0, O, I,
+    // l)
+    private static final String PASSWORD_CHARS = "ABCDEFGHJKMNPQRSTUVWXYZabcdefghijkmnpqrstuvwxyz23456789";
+
+    private final PasswordEncoder encoder;
+    private final PasswordHashingExecutor hashing;
+    private final boolean tokenMode;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public InviteCredentials(PasswordEncoder encoder, PasswordHashingExecutor hashing,
+            @Value("${invites.tokenMode:true}") boolean tokenMode) {
+        this.encoder = encoder;
+        this.hashing = hashing;
+        this.tokenMode = tokenMode;
+    }
+
+    /**
+     * The secret to hand to the invitee plus what gets stored on the invite;
+     * exactly one of tempPasswordHash / tokenHash is set
+     */
+    public record Issued(String secret, String tempPasswordHash, byte[] tokenHash) {
+        public void applyTo(Invite invite) {
+            invite.setTempPasswordHash(tempPasswordHash);
+            invite.setTokenHash(tokenHash);
+        }
+    }
+
+    public Issued issue() {
+        if (tokenMode) {
+            String token = newToken();
+            return new Issued(token, null, digest(token));
+        }
+        String password = newTempPassword();
+        return new Issued(password, encoder.encode(password), null);
+    }
+
+    /**
+     * Issue n credentials. In password mode the hashing is split into one slice
+     * per hashing worker rather than one task per password, so a large batch
+     * never floods the hashing queue.
+     */
+    public List<Issued> issueAll(int n) {
+        var out = new ArrayList<Issued>(n);
+        if (tokenMode || n == 0) {
+            for (int i = 0; i < n; i++)
+                out.add(issue());
+            return out;
+        }
+        var passwords = new ArrayList<String>(n);
+        for (int i = 0; i < n; i++)
+            passwords.add(newTempPassword());
+        int slices = Math.min(hashing.parallelism(), n);
+        int per = (n + slices - 1) / slices;
+        var work = new ArrayList<Supplier<List<String>>>(slices);
+        for (int from = 0; from < n; from += per) {
+            var slice = passwords.subList(from, Math.min(from + per, n));
+            work.add(() -> slice.stream().map(encoder::encode).toList());
+        }
+        var hashes = new ArrayList<String>(n);
+        hashing.runAll(work).forEach(hashes::addAll);
+        for (int i = 0; i < n; i++)
+            out.add(new Issued(passwords.get(i), hashes.get(i), null));
+        return out;
+    }
+
+    /**
+     * Check a presented secret against an invite, whichever mode issued it
+     */
+    public boolean matches(String raw, Invite invite) {
+        if (invite.getTokenHash() != null)
+            return MessageDigest.isEqual(digest(raw), invite.getTokenHash());
+        return invite.getTempPasswordHash() != null && encoder.matches(raw, invite.getTempPasswordHash());
+    }
+
+    /**
+     * The temp password hash to carry over to the user created from an invite,
+     * so the same secret keeps working until the password is changed
+     */
+    public String userTempHash(Invite invite) {
+        if (invite.getTokenHash() != null)
+            return TOKEN_HASH_PREFIX + Base64.getEncoder().encodeToString(invite.getTokenHash());
+        return invite.getTempPasswordHash();
+    }
+
+    /**
+     * Check a presented secret against users.temp_password_hash
+     */
+    public boolean matchesUserTemp(String raw, String stored) {
+        if (stored.startsWith(TOKEN_HASH_PREFIX)) {
+            byte[] expected = Base64.getDecoder().decode(stored.substring(TOKEN_HASH_PREFIX.length()));
+            return MessageDigest.isEqual(digest(raw), expected);
+        }
+        return encoder.matches(raw, stored);
+    }
+
+    public static byte[] digest(String token) {
+        return TokenDigest.of(token).toBytes();
+    }
+
+    private String newToken() {
+        byte[] raw = new byte[32];
+        secureRandom.nextBytes(raw);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    private String newTempPassword() {
+        StringBuilder password = new StringBuilder(12);
+        for (int i = 0; i < 12; i++) {
+            password.append(PASSWORD_CHARS.charAt(secureRandom.nextInt(PASSWORD_CHARS.length())));
+        }
+        return password.toString();
+    }
+}
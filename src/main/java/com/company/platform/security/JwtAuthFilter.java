@@ -6,21 +6,21 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import io.jsonwebtoken.Claims;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.UUID;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwt;
     private final TokenBlacklistService tokenBlacklist;
+    private final TokenEpochService tokenEpochs;
 
-    public JwtAuthFilter(JwtService jwt, TokenBlacklistService tokenBlacklist) {
+    public JwtAuthFilter(JwtService jwt, TokenBlacklistService tokenBlacklist, TokenEpochService tokenEpochs) {
         this.jwt = jwt;
         this.tokenBlacklist = tokenBlacklist;
+        this.tokenEpochs = tokenEpochs;
     }
 
     @Override
@@ -30,22 +30,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             try {
                 String token = header.substring(7);
+                var digest = TokenDigest.of(token);
 
-                // Check if token is blacklisted
-                if (tokenBlacklist.isTokenBlacklisted(token)) {
-                    // Token is blacklisted - treat as unauthenticated
-                    chain.doFilter(req, res);
-                    return;
-                }
+                // Check if token is blacklisted - if so, treat as unauthenticated
+                if (!tokenBlacklist.isTokenBlacklisted(digest)) {
+                    CurrentUser principal = jwt.authenticate(token, digest);
 
-                var jws = jwt.parse(token);
-                Claims c = jws.getPayload();
-                UUID id = UUID.fromString(c.getSubject());
-                String email = c.get("email", String.class);
-                String subType = c.get("subType", String.class);
-                CurrentUser principal = new CurrentUser(id, email, subType);
-                var auth = new UsernamePasswordAuthenticationToken(principal, null, List.of());
-                SecurityContextHolder.getContext().setAuthentication(auth);
+                    // Tokens issued before the subject's last "revoke all" are dead too
+                    if (tokenEpochs.isCurrent(principal)) {
+                        var auth = new UsernamePasswordAuthenticationToken(principal, null, List.of());
+                        SecurityContextHolder.getContext().setAuthentication(auth);
+                    }
+                }
             } catch (Exception ignored) {
                 // invalid token -> unauthenticated
             }
@@ -0,0 +1,239 @@
+package com.company.platform.security;
+
+import com.company.platform.domain.JwtSigningKey;
+import com.company.platform.repo.JwtSigningKeyRepo;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Asymmetric signing keys for access tokens (ES256 or EdDSA).
+ * <p>
+ * Keys live in {@code jwt_signing_keys} so every node signs with the same key.
+ * A successor key is created ahead of time and published in the JWKS for
+ * {@code keyPublishLeadMinutes} before it starts signing, and a retired key
+ * stays published until every token it signed has expired, so rotation never
+ * breaks tokens in flight or downstream JWKS caches. With
+ * {@code security.jwt.algorithm=HMAC} nothing is signed here, but the ring
+ * still loads for verification: keys left from an asymmetric period are
+ * retired like rotated-out keys, so switching back to HMAC doesn't break the
+ * tokens they signed.
+ * <p>
+ * Private keys are stored sealed with {@link SigningKeyCipher}, under a
+ * key-encryption key from {@code security.jwt.keys.encryptionKey} that is
+ * required in asymmetric mode. Rows written before sealing existed are sealed
+ * in place on the next refresh.
+ */
+@Component
+public class JwtKeyRing {
+
+    public record ActiveKey(String kid, PrivateKey privateKey, SignatureAlgorithm alg) {
+    }
+
+    private record LoadedKey(String kid, SignatureAlgorithm alg, PrivateKey privateKey, PublicKey publicKey,
+            Instant activatesAt) {
+    }
+
+    private record Snapshot(List<LoadedKey> keys, Map<String, PublicKey> byKid, String jwksJson) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String EMPTY_JWKS = "{\"keys\":[]}";
+
+    private final JwtSigningKeyRepo repo;
+    private final TransactionTemplate tx;
+
+    @Value("${security.jwt.algorithm:HMAC}")
+    private String algorithm;
+    @Value("${security.jwt.accessTokenTtlMinutes}")
+    private long accessTtlMin;
+    @Value("${security.jwt.keys.rotationDays:30}")
+    private long rotationDays;
+    @Value("${security.jwt.keys.publishLeadMinutes:60}")
+    private long publishLeadMinutes;
+    @Value("${security.jwt.keys.encryptionKey:}")
+    private String encryptionKey;
+
+    private SigningKeyCipher cipher;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), Map.of(), EMPTY_JWKS);
+
+    public JwtKeyRing(JwtSigningKeyRepo repo, PlatformTransactionManager txManager) {
+        this.repo = repo;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    public boolean isAsymmetric() {
+        return !"HMAC".equalsIgnoreCase(algorithm);
+    }
+
+    @PostConstruct
+    void init() {
+        if (isAsymmetric()) {
+            signatureAlgorithm(algorithm); // fail fast on a typo
+            if (encryptionKey == null || encryptionKey.isBlank())
+                throw new IllegalStateException("security.jwt.keys.encryptionKey is required for " + algorithm);
+        }
+        if (encryptionKey != null && !encryptionKey.isBlank())
+            cipher = new SigningKeyCipher(encryptionKey);
+        refresh();
+    }
+
+    /**
+     * Key that signs new tokens: the newest key of the configured algorithm
+     * whose activation time has passed
+     */
+    public ActiveKey activeKey() {
+        Instant now = Instant.now();
+        for (LoadedKey k : snapshot.keys()) { // newest first
+            if (k.alg().getId().equals(algorithm) && !k.activatesAt().isAfter(now))
+                return new ActiveKey(k.kid(), k.privateKey(), k.alg());
+        }
+        throw new IllegalStateException("No active " + algorithm + " signing key");
+    }
+
+    public PublicKey verificationKey(String kid) {
+        return kid == null ? null : snapshot.byKid().get(kid);
+    }
+
+    public String jwksJson() {
+        return snapshot.jwksJson();
+    }
+
+    /**
+     * Rotate if due, then reload the published key set from the database
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.keys.refreshSeconds:60}",
+            initialDelayString = "${security.jwt.keys.refreshSeconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void refresh() {
+        List<JwtSigningKey> rows = tx.execute(status -> {
+            if (isAsymmetric())
+                rotateIfDue();
+            else
+                retireAll();
+            if (cipher != null)
+                sealPlaintextKeys();
+            return repo.findUnexpired(Instant.now());
+        });
+        snapshot = load(rows);
+    }
+
+    private void rotateIfDue() {
+        Instant now = Instant.now();
+        if (!isRotationDue(now))
+            return;
+        repo.lockForRotation();
+        // Another node may have rotated while we waited for the lock
+        if (!isRotationDue(now))
+            return;
+
+        var latest = repo.findFirstByAlgOrderByActivatesAtDesc(algorithm);
+        // The very first key, or the first after an HMAC period retired the old ones, has
+        // nothing to wait for; successors are published ahead of use
+        Instant activatesAt = latest.isPresent() && latest.get().getExpiresAt() == null
+                ? now.plus(Duration.ofMinutes(publishLeadMinutes))
+                : now;
+        var created = generate(activatesAt);
+        repo.save(created);
+        // Predecessors stop signing at activatesAt; keep them until their last token expires
+        repo.expireAllExcept(created.getKid(), activatesAt.plus(Duration.ofMinutes(accessTtlMin + 5)));
+        repo.deleteExpiredBefore(now);
+    }
+
+    /**
+     * HMAC mode: stop publishing keys once the last token they signed has
+     * expired
+     */
+    private void retireAll() {
+        Instant now = Instant.now();
+        repo.expireAll(now.plus(Duration.ofMinutes(accessTtlMin + 5)));
+        repo.deleteExpiredBefore(now);
+    }
+
+    private void sealPlaintextKeys() {
+        for (JwtSigningKey k : repo.findAll()) {
+            if (SigningKeyCipher.isSealed(k.getPrivateKey()))
+                continue;
+            k.setPrivateKey(cipher.seal(k.getKid(), k.getPrivateKey()));
+            log.warn("Sealed plaintext signing key {}; rotate keys if backups may hold the old row", k.getKid());
+        }
+    }
+
+    // A successor is due publishLeadMinutes before the current key reaches rotationDays,
+    // or at once if the current key was retired in HMAC mode
+    private boolean isRotationDue(Instant now) {
+        return repo.findFirstByAlgOrderByActivatesAtDesc(algorithm)
+                .map(k -> k.getExpiresAt() != null || !k.getActivatesAt().plus(Duration.ofDays(rotationDays))
+                        .minus(Duration.ofMinutes(publishLeadMinutes)).isAfter(now))
+                .orElse(true);
+    }
+
+    private JwtSigningKey generate(Instant activatesAt) {
+        // jjwt's EdDSA default is Ed448; Ed25519 is what JWKS consumers widely support
+        var pair = "EdDSA".equals(algorithm)
+                ? Jwks.CRV.Ed25519.keyPair().build()
+                : signatureAlgorithm(algorithm).keyPair().build();
+        var key = new JwtSigningKey();
+        key.setKid(Jwks.builder().key(pair.getPublic()).idFromThumbprint().build().getId());
+        key.setAlg(algorithm);
+        key.setPrivateKey(cipher.seal(key.getKid(), pair.getPrivate().getEncoded()));
+        key.setPublicKey(pair.getPublic().getEncoded());
+        key.setActivatesAt(activatesAt);
+        return key;
+    }
+
+    private Snapshot load(List<JwtSigningKey> rows) {
+        var keys = new ArrayList<LoadedKey>();
+        for (JwtSigningKey r : rows) {
+            try {
+                var alg = signatureAlgorithm(r.getAlg());
+                var kf = KeyFactory.getInstance("ES256".equals(r.getAlg()) ? "EC" : "EdDSA");
+                // only opened when this node signs; verification needs the public key alone
+                keys.add(new LoadedKey(r.getKid(), alg,
+                        isAsymmetric()
+                                ? kf.generatePrivate(new PKCS8EncodedKeySpec(cipher.open(r.getKid(), r.getPrivateKey())))
+                                : null,
+                        kf.generatePublic(new X509EncodedKeySpec(r.getPublicKey())),
+                        r.getActivatesAt()));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Unreadable signing key " + r.getKid(), e);
+            }
+        }
+        keys.sort(Comparator.comparing(LoadedKey::activatesAt).reversed());
+
+        var byKid = keys.stream().collect(Collectors.toUnmodifiableMap(LoadedKey::kid, LoadedKey::publicKey));
+        String jwks = keys.stream()
+                .map(k -> Jwks.json(Jwks.builder().key(k.publicKey()).id(k.kid())
+                        .algorithm(k.alg().getId()).publicKeyUse("sig").build()))
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+        return new Snapshot(List.copyOf(keys), byKid, jwks);
+    }
+
+    private static SignatureAlgorithm signatureAlgorithm(String alg) {
+        return switch (alg) {
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EdDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalArgumentException("Unsupported security.jwt.algorithm: " + alg);
+        };
+    }
+}
@@ -1,16 +1,16 @@
 package com.company.platform.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import javax.crypto.SecretKey;
 import java.time.Instant;
 import java.util.Date;
-import java.util.Map;
 import java.util.UUID;
 
 @Component
@@ -22,40 +22,121 @@ public class JwtService {
     private String issuer;
     @Value("${security.jwt.accessTokenTtlMinutes}")
     private long accessTtlMin;
+    @Value("${security.jwt.hmacAcceptUntil:}")
+    private String hmacAcceptUntil;
 
-    private SecretKey key() {
+    private final VerifiedTokenCache verifiedTokens;
+    private final JwtKeyRing keyRing;
+
+    // Key and parser are immutable and thread-safe, so build them once
+    private SecretKey key;
+    private JwtParser parser;
+    private Instant hmacDeadline; // null = HMAC tokens only in HMAC mode
+
+    public JwtService(VerifiedTokenCache verifiedTokens, JwtKeyRing keyRing) {
+        this.verifiedTokens = verifiedTokens;
+        this.keyRing = keyRing;
+    }
+
+    @PostConstruct
+    void init() {
         // Always use UTF-8 encoding for simplicity
-        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(bytes);
+        key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        hmacDeadline = hmacAcceptUntil == null || hmacAcceptUntil.isBlank() ? null : Instant.parse(hmacAcceptUntil);
+        // In asymmetric mode the shared secret is not a second way in: HMAC tokens are
+        // only accepted until hmacAcceptUntil, a window for tokens issued before the switch.
+        // Ring keys verify in either mode, so switching back to HMAC keeps them valid too.
+        parser = Jwts.parser().keyLocator(new LocatorAdapter<Key>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                Key k = verificationKey(header.getAlgorithm(), header.getKeyId());
+                if (k == null && header.getAlgorithm().startsWith("HS"))
+                    throw new UnsupportedJwtException("HMAC-signed tokens are not accepted");
+                return k;
+            }
+        }).build();
+    }
+
+    /**
+     * Key that verifies tokens of this algorithm and key id right now, or null
+     * if they are no longer accepted (HMAC past its window, ring key retired)
+     */
+    private Key verificationKey(String alg, String kid) {
+        if (!alg.startsWith("HS"))
+            return keyRing.verificationKey(kid);
+        if (!keyRing.isAsymmetric() || (hmacDeadline != null && Instant.now().isBefore(hmacDeadline)))
+            return key;
+        return null;
+    }
+
+    private JwtBuilder sign(JwtBuilder builder) {
+        if (!keyRing.isAsymmetric())
+            return builder.signWith(key);
+        var active = keyRing.activeKey();
+        return builder.header().keyId(active.kid()).and().signWith(active.privateKey(), active.alg());
     }
 
-    public String generateAccessTokenForUser(UUID userId, String email) {
+    public String generateAccessTokenForUser(UUID userId, String email, long tokenEpoch) {
         Instant now = Instant.now();
-        return Jwts.builder()
+        return sign(Jwts.builder()
                 .subject(userId.toString())
                 .issuer(issuer)
                 .claim("email", email)
                 .claim("subType", "USER")
+                .claim("epoch", tokenEpoch)
                 .issuedAt(Date.from(now))
-                .expiration(Date.from(now.plusSeconds(accessTtlMin * 60)))
-                .signWith(key())
+                .expiration(Date.from(now.plusSeconds(accessTtlMin * 60))))
                 .compact();
     }
 
-    public String generateAccessTokenForPlatformOwner(UUID ownerId, String email) {
+    public String generateAccessTokenForPlatformOwner(UUID ownerId, String email, long tokenEpoch) {
         Instant now = Instant.now();
-        return Jwts.builder()
+        return sign(Jwts.builder()
                 .subject(ownerId.toString())
                 .issuer(issuer)
                 .claim("email", email)
                 .claim("subType", "PLATFORM")
+                .claim("epoch", tokenEpoch)
                 .issuedAt(Date.from(now))
-                .expiration(Date.from(now.plusSeconds(accessTtlMin * 60)))
-                .signWith(key())
+                .expiration(Date.from(now.plusSeconds(accessTtlMin * 60))))
                 .compact();
     }
 
     public Jws<Claims> parse(String token) {
-        return Jwts.parser().verifyWith(key()).build().parseSignedClaims(token);
+        return parser.parseSignedClaims(token);
+    }
+
+    /**
+     * Verify a bearer token and resolve its principal. Tokens seen before are
+     * answered from {@link VerifiedTokenCache} without re-checking the
+     * signature, as long as their signing key is still accepted.
+     */
+    public CurrentUser authenticate(String token) {
+        return authenticate(token, TokenDigest.of(token));
+    }
+
+    public CurrentUser authenticate(String token, TokenDigest digest) {
+        return verify(token, digest).principal();
+    }
+
+    public VerifiedToken verify(String token, TokenDigest digest) {
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (verificationKey(cached.alg(), cached.kid()) != null)
+                return cached;
+            verifiedTokens.invalidate(digest); // the full check below rejects it
+        }
+
+        Jws<Claims> jws = parse(token);
+        Claims c = jws.getPayload();
+        UUID id = UUID.fromString(c.getSubject());
+        String email = c.get("email", String.class);
+        String subType = c.get("subType", String.class);
+        Long epoch = c.get("epoch", Long.class); // absent on tokens issued before epochs existed
+        CurrentUser principal = new CurrentUser(id, email, subType, epoch == null ? 0 : epoch);
+        var verified = new VerifiedToken(principal, c.getExpiration().getTime(), jws.getHeader().getAlgorithm(),
+                jws.getHeader().getKeyId());
+        verifiedTokens.put(digest, verified);
+        return verified;
     }
-}
\ No newline at end of file
+}
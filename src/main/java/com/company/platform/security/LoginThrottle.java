@@ -0,0 +1,189 @@
+package com.company.platform.security;
+
+import com.company.platform.err.BadRequestException;
+import com.company.platform.err.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Login attempt limiter, keyed by normalised email and by client address.
+ * <p>
+ * Runs before any repository lookup or password hashing, so rejected
+ * attempts cost microseconds. Each key has a sliding-window attempt budget;
+ * emails also get an exponential lock-out after consecutive failures. State lives in
+ * lock-striped LRU maps with a fixed capacity, so memory stays bounded no
+ * matter how many distinct emails or addresses an attacker cycles through.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int STRIPES = 64;
+
+    private static final class Window {
+        long windowStart;
+        int previous;
+        int current;
+        int failures;
+        long blockedUntil;
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Window> {
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true); // access order => LRU
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long windowMillis;
+    private final int maxPerEmail;
+    private final int maxPerIp;
+    private final int failuresBeforeBackoff;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Counter throttledByEmail;
+    private final Counter throttledByIp;
+
+    public LoginThrottle(
+            @Value("${security.login.throttle.windowSeconds:60}") long windowSeconds,
+            @Value("${security.login.throttle.maxAttemptsPerEmail:10}") int maxPerEmail,
+            @Value("${security.login.throttle.maxAttemptsPerIp:100}") int maxPerIp,
+            @Value("${security.login.throttle.failuresBeforeBackoff:5}") int failuresBeforeBackoff,
+            @Value("${security.login.throttle.baseBackoffSeconds:1}") long baseBackoffSeconds,
+            @Value("${security.login.throttle.maxBackoffSeconds:900}") long maxBackoffSeconds,
+            @Value("${security.login.throttle.maxEntries:100000}") int maxEntries,
+            MeterRegistry meters) {
+        this.windowMillis = windowSeconds * 1000;
+        this.maxPerEmail = maxPerEmail;
+        this.maxPerIp = maxPerIp;
+        this.failuresBeforeBackoff = failuresBeforeBackoff;
+        this.baseBackoffMillis = baseBackoffSeconds * 1000;
+        this.maxBackoffMillis = maxBackoffSeconds * 1000;
+        for (int i = 0; i < STRIPES; i++)
+            stripes[i] = new Stripe(Math.max(1, maxEntries / STRIPES));
+
+        this.throttledByEmail = Counter.builder("auth.login.throttled").tag("key", "email").register(meters);
+        this.throttledByIp = Counter.builder("auth.login.throttled").tag("key", "ip").register(meters);
+        Gauge.builder("auth.login.throttle.entries", this, LoginThrottle::trackedKeys).register(meters);
+    }
+
+    /**
+     * Run a login attempt under the throttle. Throws 429 before calling
+     * {@code login} if either key is over budget or locked out; a
+     * {@link BadRequestException} from {@code login} counts as a failure.
+     */
+    public <T> T guard(String email, String clientIp, Supplier<T> login) {
+        String emailKey = "e:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+        String ipKey = "i:" + clientIp;
+        long now = System.currentTimeMillis();
+
+        long retryEmail = admit(emailKey, maxPerEmail, now);
+        if (retryEmail > 0) {
+            throttledByEmail.increment();
+            throw tooMany(retryEmail);
+        }
+        long retryIp = admit(ipKey, maxPerIp, now);
+        if (retryIp > 0) {
+            throttledByIp.increment();
+            throw tooMany(retryIp);
+        }
+
+        try {
+            T result = login.get();
+            reset(emailKey);
+            return result;
+        } catch (BadRequestException e) {
+            // Only the account backs off; addresses may be shared (NAT) and keep a plain budget
+            fail(emailKey, now);
+            throw e;
+        }
+    }
+
+    /**
+     * Count an attempt against a key; returns 0 if allowed, otherwise the
+     * number of milliseconds until the caller may retry
+     */
+    private long admit(String key, int max, long now) {
+        Stripe s = stripe(key);
+        synchronized (s) {
+            Window w = s.computeIfAbsent(key, k -> new Window());
+            if (w.blockedUntil > now)
+                return w.blockedUntil - now;
+            roll(w, now);
+            // Sliding window estimate: weighted previous window plus current
+            double elapsed = (double) (now - w.windowStart) / windowMillis;
+            double estimate = w.previous * (1 - elapsed) + w.current;
+            if (estimate >= max)
+                return Math.max(1, windowMillis - (now - w.windowStart));
+            w.current++;
+            return 0;
+        }
+    }
+
+    private void fail(String key, long now) {
+        Stripe s = stripe(key);
+        synchronized (s) {
+            Window w = s.get(key);
+            if (w == null)
+                return;
+            int over = ++w.failures - failuresBeforeBackoff;
+            if (over >= 0) {
+                long backoff = baseBackoffMillis << Math.min(over, 30);
+                w.blockedUntil = now + Math.min(backoff, maxBackoffMillis);
+            }
+        }
+    }
+
+    private void reset(String key) {
+        Stripe s = stripe(key);
+        synchronized (s) {
+            Window w = s.get(key);
+            if (w != null) {
+                w.failures = 0;
+                w.blockedUntil = 0;
+            }
+        }
+    }
+
+    private void roll(Window w, long now) {
+        long elapsed = now - w.windowStart;
+        if (elapsed < windowMillis)
+            return;
+        w.previous = elapsed < 2 * windowMillis ? w.current : 0;
+        w.current = 0;
+        w.windowStart = now - (elapsed % windowMillis);
+    }
+
+    private Stripe stripe(String key) {
+        return stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private TooManyRequestsException tooMany(long retryMillis) {
+        return new TooManyRequestsException("Too many login attempts, retry later", (retryMillis + 999) / 1000);
+    }
+
+    private int trackedKeys() {
+        int n = 0;
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                n += s.size();
+            }
+        }
+        return n;
+    }
+}
@@ -1,13 +1,123 @@
 package com.company.platform.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.*;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
 
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Password hashing. New hashes are written as {@code {id}hash} with the
+ * configured algorithm; older ids, older cost factors and legacy unprefixed
+ * BCrypt hashes still verify and are upgraded on the next successful login.
+ * <p>
+ * Unless {@code security.password.cost} pins it, the cost factor is
+ * calibrated at startup to the largest value whose verification still fits
+ * {@code security.password.targetMillis} on this host - never below the
+ * library defaults. Memory-hard algorithms use a fixed amount of memory per
+ * hash: 19 MiB for Argon2id, and for scrypt (128 * N * r bytes) at most
+ * {@code security.password.scrypt.maxMemoryMb}, which caps N whatever the
+ * calibration would pick. The hashing pool runs up to one hash per thread at
+ * once, so budget that many times the per-hash memory.
+ */
 @Configuration
 public class PasswordConfig {
+
+    // Argon2id memory and lanes per OWASP guidance; iterations are calibrated
+    private static final int ARGON2_MEMORY_KIB = 19 * 1024;
+    private static final int ARGON2_PARALLELISM = 1;
+    private static final int SCRYPT_BLOCK_SIZE = 8; // r
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // BCrypt is included in Spring Security by default
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor hashingExecutor,
+            @Value("${security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${security.password.cost:0}") int cost,
+            @Value("${security.password.targetMillis:250}") long targetMillis,
+            @Value("${security.password.scrypt.maxMemoryMb:64}") long scryptMaxMemoryMb) {
+        IntFunction<PasswordEncoder> factory = encoderFactory(algorithm);
+        int max = maxCost(algorithm);
+        if ("scrypt".equals(algorithm)) {
+            max = Math.min(max, scryptMaxCost(scryptMaxMemoryMb));
+            if (max < minCost(algorithm) || cost > max)
+                throw new IllegalStateException("security.password.scrypt.maxMemoryMb=" + scryptMaxMemoryMb
+                        + " allows at most N=2^" + max + ", below the configured or minimum cost");
+        }
+        if (cost <= 0)
+            cost = calibrate(factory, minCost(algorithm), max, targetMillis);
+
+        var encoders = Map.<String, PasswordEncoder>of(
+                "bcrypt", "bcrypt".equals(algorithm) ? factory.apply(cost) : new BCryptPasswordEncoder(),
+                "argon2", "argon2".equals(algorithm) ? factory.apply(cost) : encoderFactory("argon2").apply(2),
+                "scrypt", "scrypt".equals(algorithm) ? factory.apply(cost) : encoderFactory("scrypt").apply(16));
+        var delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes written before the {id} prefix was introduced are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+
+        // Hashing runs on its own bounded pool
+        return new BoundedPasswordEncoder(delegating, hashingExecutor);
+    }
+
+    /**
+     * Encoder for a cost factor: BCrypt log2 rounds, Argon2id iterations, or
+     * scrypt log2 CPU cost
+     */
+    private static IntFunction<PasswordEncoder> encoderFactory(String algorithm) {
+        return switch (algorithm) {
+            case "bcrypt" -> BCryptPasswordEncoder::new;
+            case "argon2" -> c -> new Argon2PasswordEncoder(16, 32, ARGON2_PARALLELISM, ARGON2_MEMORY_KIB, c);
+            case "scrypt" -> c -> new SCryptPasswordEncoder(1 << c, SCRYPT_BLOCK_SIZE, 1, 32, 16);
+            default -> throw new IllegalArgumentException("Unsupported security.password.algorithm: " + algorithm);
+        };
+    }
+
+    private static int minCost(String algorithm) {
+        return switch (algorithm) {
+            case "bcrypt" -> 10;
+            case "argon2" -> 2;
+            default -> 16; // scrypt N = 2^16
+        };
+    }
+
+    private static int maxCost(String algorithm) {
+        return switch (algorithm) {
+            case "bcrypt" -> 16;
+            case "argon2" -> 12;
+            default -> 20;
+        };
+    }
+
+    /**
+     * Largest log2 N whose scrypt working memory (128 * N * r bytes) fits
+     * maxMemoryMb
+     */
+    static int scryptMaxCost(long maxMemoryMb) {
+        long blocks = (maxMemoryMb << 20) / (128L * SCRYPT_BLOCK_SIZE);
+        return blocks <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(blocks);
+    }
+
+    /**
+     * Pick the largest cost whose matches() stays within the target latency.
+     * Each step is timed after a warm-up run, and stepping stops as soon as
+     * the target is exceeded.
+     */
+    static int calibrate(IntFunction<PasswordEncoder> factory, int min, int max, long targetMillis) {
+        int chosen = min;
+        for (int cost = min; cost <= max; cost++) {
+            var encoder = factory.apply(cost);
+            String hash = encoder.encode("calibration-password");
+            encoder.matches("calibration-password", hash); // warm-up
+            long start = System.nanoTime();
+            encoder.matches("calibration-password", hash);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            if (millis > targetMillis)
+                break;
+            chosen = cost;
+        }
+        return chosen;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,121 @@
+package com.company.platform.security;
+
+import com.company.platform.err.TooManyRequestsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated pool for password hashing, sized to the cores with a bounded
+ * queue. Slow hash work can then never occupy more than a fixed share of the
+ * CPU or of the servlet threads; once the queue is full, callers are turned
+ * away immediately with a 429 instead of piling up.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final class HashingThread extends Thread {
+        HashingThread(Runnable r, String name) {
+            super(r, name);
+            setDaemon(true);
+        }
+    }
+
+    private final ThreadPoolExecutor pool;
+    private final long retryAfterSeconds;
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+
+    public PasswordHashingExecutor(
+            @Value("${security.password.hashing.threads:0}") int threads,
+            @Value("${security.password.hashing.queueCapacity:64}") int queueCapacity,
+            @Value("${security.password.hashing.retryAfterSeconds:1}") long retryAfterSeconds,
+            MeterRegistry meters) {
+        int n = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        var seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(n, n, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                r -> new HashingThread(r, "password-hash-" + seq.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.waitTimer = Timer.builder("auth.password.hash.wait").register(meters);
+        this.hashTimer = Timer.builder("auth.password.hash.time").register(meters);
+        Gauge.builder("auth.password.hash.queue", pool, p -> p.getQueue().size()).register(meters);
+        Gauge.builder("auth.password.hash.active", pool, ThreadPoolExecutor::getActiveCount).register(meters);
+    }
+
+    /**
+     * Run a hash computation on the pool and wait for its result
+     */
+    public <T> T run(Supplier<T> work) {
+        // Already on a hashing thread (part of a runAll slice): don't queue behind ourselves
+        if (Thread.currentThread() instanceof HashingThread)
+            return work.get();
+        return await(submit(work));
+    }
+
+    /**
+     * Run independent pieces of hash work in parallel, e.g. one slice of a bulk
+     * import per worker. Results are returned in submission order.
+     */
+    public <T> List<T> runAll(List<Supplier<T>> work) {
+        var futures = new ArrayList<Future<T>>(work.size());
+        try {
+            for (Supplier<T> w : work)
+                futures.add(submit(w));
+        } catch (TooManyRequestsException e) {
+            futures.forEach(f -> f.cancel(false));
+            throw e;
+        }
+        var results = new ArrayList<T>(work.size());
+        for (Future<T> f : futures)
+            results.add(await(f));
+        return results;
+    }
+
+    /**
+     * Number of hashing workers - the useful degree of parallelism for runAll
+     */
+    public int parallelism() {
+        return pool.getMaximumPoolSize();
+    }
+
+    private <T> Future<T> submit(Supplier<T> work) {
+        long submitted = System.nanoTime();
+        try {
+            return pool.submit(() -> {
+                waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return hashTimer.record(work);
+            });
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Too many authentication requests, retry later", retryAfterSeconds);
+        }
+    }
+
+    private static <T> T await(Future<T> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            f.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re)
+                throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+}
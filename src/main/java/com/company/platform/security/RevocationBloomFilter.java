@@ -0,0 +1,161 @@
+package com.company.platform.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time-rotated Bloom filter in front of the exact revocation set.
+ * <p>
+ * Entries go into the current generation; lookups probe the current and the
+ * previous one. Generations rotate once per access token TTL, so anything
+ * inserted is kept for at least one full TTL - long enough for the token to
+ * expire - and then ages out with its generation. A negative answer is a few
+ * bit reads with no allocation.
+ */
+@Component
+public class RevocationBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private static final class Generation {
+        final AtomicLongArray bits;
+        final long numBits;
+        final int numHashes;
+        final LongAdder insertions = new LongAdder();
+
+        Generation(long expectedInsertions, double fpp) {
+            long n = Math.max(1, expectedInsertions);
+            long m = (long) Math.ceil(-n * Math.log(fpp) / (LN2 * LN2));
+            int words = (int) Math.min(Integer.MAX_VALUE, (m + 63) >>> 6);
+            this.bits = new AtomicLongArray(words);
+            this.numBits = (long) words << 6;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * LN2));
+        }
+
+        void put(TokenDigest d) {
+            // Kirsch-Mitzenmacher double hashing over the (already uniform) SHA-256 words
+            long h = d.h0();
+            for (int i = 0; i < numHashes; i++, h += d.h1()) {
+                long idx = Math.floorMod(h, numBits);
+                int word = (int) (idx >>> 6);
+                long mask = 1L << idx;
+                long cur;
+                while (((cur = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, cur, cur | mask)) {
+                    // retry on contention
+                }
+            }
+            insertions.increment();
+        }
+
+        boolean mightContain(TokenDigest d) {
+            long h = d.h0();
+            for (int i = 0; i < numHashes; i++, h += d.h1()) {
+                long idx = Math.floorMod(h, numBits);
+                if ((bits.get((int) (idx >>> 6)) & (1L << idx)) == 0)
+                    return false;
+            }
+            return true;
+        }
+
+        double expectedFpp() {
+            // (1 - e^(-kn/m))^k
+            return Math.pow(1 - Math.exp(-numHashes * (double) insertions.sum() / numBits), numHashes);
+        }
+
+        long sizeInBytes() {
+            return (long) bits.length() * Long.BYTES;
+        }
+    }
+
+    private record Generations(Generation current, Generation previous) {
+    }
+
+    private final long minExpectedPerWindow;
+    private final double targetFpp;
+    private volatile Generations generations;
+
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public RevocationBloomFilter(
+            @Value("${security.jwt.accessTokenTtlMinutes}") long accessTtlMin,
+            @Value("${security.jwt.revocation.bloom.expectedLogoutsPerMinute:100}") long expectedLogoutsPerMinute,
+            @Value("${security.jwt.revocation.bloom.targetFpp:0.01}") double targetFpp,
+            MeterRegistry meters) {
+        this.minExpectedPerWindow = expectedLogoutsPerMinute * accessTtlMin;
+        this.targetFpp = targetFpp;
+        this.generations = new Generations(newGeneration(minExpectedPerWindow), newGeneration(0));
+
+        FunctionCounter.builder("auth.revocation.bloom.negatives", negatives, LongAdder::sum).register(meters);
+        FunctionCounter.builder("auth.revocation.bloom.positives", positives, LongAdder::sum).register(meters);
+        FunctionCounter.builder("auth.revocation.bloom.false_positives", falsePositives, LongAdder::sum)
+                .register(meters);
+        Gauge.builder("auth.revocation.bloom.expected_fpp", this, RevocationBloomFilter::expectedFpp)
+                .register(meters);
+        Gauge.builder("auth.revocation.bloom.memory", this, RevocationBloomFilter::sizeInBytes)
+                .baseUnit("bytes").register(meters);
+    }
+
+    private Generation newGeneration(long expectedInsertions) {
+        return new Generation(expectedInsertions, targetFpp);
+    }
+
+    public void put(TokenDigest digest) {
+        generations.current().put(digest);
+    }
+
+    public boolean mightContain(TokenDigest digest) {
+        Generations g = generations;
+        if (g.current().mightContain(digest) || g.previous().mightContain(digest)) {
+            positives.increment();
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * Record that a positive answer was not confirmed by the exact set
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Start a new generation and drop the oldest. The new one is sized from the
+     * logouts observed in the window that just ended, with 50% headroom.
+     */
+    @Scheduled(fixedRateString = "${security.jwt.accessTokenTtlMinutes}",
+            initialDelayString = "${security.jwt.accessTokenTtlMinutes}", timeUnit = TimeUnit.MINUTES)
+    public void rotate() {
+        Generations g = generations;
+        long observed = g.current().insertions.sum();
+        long expected = Math.max(minExpectedPerWindow, observed + observed / 2);
+        generations = new Generations(newGeneration(expected), g.current());
+    }
+
+    public void clear() {
+        generations = new Generations(newGeneration(minExpectedPerWindow), newGeneration(0));
+    }
+
+    public double expectedFpp() {
+        Generations g = generations;
+        // a lookup probes both generations
+        double a = g.current().expectedFpp(), b = g.previous().expectedFpp();
+        return a + b - a * b;
+    }
+
+    public long sizeInBytes() {
+        Generations g = generations;
+        return g.current().sizeInBytes() + g.previous().sizeInBytes();
+    }
+}
@@ -10,9 +10,11 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthFilter jwt;
+    private final AdaptiveConcurrencyLimitFilter concurrencyLimit;
 
-    public SecurityConfig(JwtAuthFilter jwt) {
+    public SecurityConfig(JwtAuthFilter jwt, AdaptiveConcurrencyLimitFilter concurrencyLimit) {
         this.jwt = jwt;
+        this.concurrencyLimit = concurrencyLimit;
     }
 
     @Bean
@@ -23,9 +25,14 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/actuator/health", "/actuator/info").permitAll()
                         .requestMatchers("/auth/login").permitAll()
+                        .requestMatchers("/auth/refresh").permitAll()
+                        .requestMatchers("/auth/introspect").permitAll() // checks its own client secret
                         .requestMatchers("/platform/auth/login").permitAll()
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
                         .anyRequest().authenticated())
-                .addFilterBefore(jwt, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwt, UsernamePasswordAuthenticationFilter.class)
+                // shed load before spending anything on token verification
+                .addFilterBefore(concurrencyLimit, JwtAuthFilter.class);
         return http.build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.company.platform.security;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Seals JWT signing private keys for storage with an AES-GCM key-encryption
+ * key that never touches the database ({@code security.jwt.keys.encryptionKey}),
+ * so a database dump or backup alone can't mint tokens. The kid is bound as
+ * associated data, so a sealed key can't be moved to another row.
+ * <p>
+ * Layout: version byte (1), 12-byte IV, ciphertext with 16-byte tag. A
+ * plaintext PKCS#8 key starts with a DER SEQUENCE tag (0x30) instead.
+ */
+final class SigningKeyCipher {
+    private static final byte VERSION = 1;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKeySpec kek;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * kekBase64: a base64 AES key of 16, 24 or 32 bytes
+     */
+    SigningKeyCipher(String kekBase64) {
+        byte[] raw;
+        try {
+            raw = Base64.getDecoder().decode(kekBase64.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("security.jwt.keys.encryptionKey is not valid base64", e);
+        }
+        if (raw.length != 16 && raw.length != 24 && raw.length != 32)
+            throw new IllegalStateException("security.jwt.keys.encryptionKey must be a 128, 192 or 256-bit AES key");
+        this.kek = new SecretKeySpec(raw, "AES");
+    }
+
+    static boolean isSealed(byte[] stored) {
+        return stored.length > 0 && stored[0] == VERSION;
+    }
+
+    byte[] seal(String kid, byte[] plain) {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            var c = cipher(Cipher.ENCRYPT_MODE, kid, iv);
+            byte[] sealed = new byte[1 + IV_BYTES + c.getOutputSize(plain.length)];
+            sealed[0] = VERSION;
+            System.arraycopy(iv, 0, sealed, 1, IV_BYTES);
+            c.doFinal(plain, 0, plain.length, sealed, 1 + IV_BYTES);
+            return sealed;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot seal signing key " + kid, e);
+        }
+    }
+
+    byte[] open(String kid, byte[] sealed) throws GeneralSecurityException {
+        if (!isSealed(sealed) || sealed.length < 1 + IV_BYTES)
+            throw new GeneralSecurityException("Signing key " + kid + " is not sealed");
+        var c = cipher(Cipher.DECRYPT_MODE, kid, Arrays.copyOfRange(sealed, 1, 1 + IV_BYTES));
+        return c.doFinal(sealed, 1 + IV_BYTES, sealed.length - 1 - IV_BYTES);
+    }
+
+    private Cipher cipher(int mode, String kid, byte[] iv) throws GeneralSecurityException {
+        var c = Cipher.getInstance("AES/GCM/NoPadding");
+        c.init(mode, kek, new GCMParameterSpec(TAG_BITS, iv));
+        c.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return c;
+    }
+}
@@ -1,62 +1,148 @@
 package com.company.platform.security;
 
-import io.jsonwebtoken.Claims;
+import com.company.platform.domain.TokenRevocation;
+import com.company.platform.repo.TokenRevocationRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.Date;
-import java.util.Set;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class TokenBlacklistService {
 
     private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokens;
+    private final TokenRevocationRepo revocations;
+    private final RevocationBloomFilter bloom;
 
-    // In-memory storage for blacklisted tokens (for MVP)
-    // In production, you might want to use Redis or database storage
-    private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
+    @Value("${security.jwt.revocation.syncBatchSize:1000}")
+    private int syncBatchSize;
+    @Value("${security.jwt.revocation.syncOverlapSeconds:30}")
+    private long syncOverlapSeconds;
+    @Value("${security.jwt.revocation.pruneBatchSize:1000}")
+    private int pruneBatchSize;
 
-    public TokenBlacklistService(JwtService jwtService) {
+    // Local replica of the token_revocations table: digest -> expiry (epoch millis).
+    // Lookups only touch this map, so isTokenBlacklisted never takes a lock or a
+    // database round trip.
+    private final Map<TokenDigest, Long> blacklistedTokens = new ConcurrentHashMap<>();
+
+    // Min-heap ordered by expiry so the sweeper only looks at entries that are due
+    private record Expiring(TokenDigest digest, long expiresAtMillis) {
+    }
+
+    private final PriorityQueue<Expiring> byExpiry = new PriorityQueue<>(
+            (a, b) -> Long.compare(a.expiresAtMillis(), b.expiresAtMillis()));
+
+    // High-water mark of the replica (latest revoked_at seen)
+    private Instant syncedRevokedAt = Instant.EPOCH;
+
+    public TokenBlacklistService(JwtService jwtService, VerifiedTokenCache verifiedTokens,
+            TokenRevocationRepo revocations, RevocationBloomFilter bloom) {
         this.jwtService = jwtService;
+        this.verifiedTokens = verifiedTokens;
+        this.revocations = revocations;
+        this.bloom = bloom;
     }
 
     /**
      * Add a token to the blacklist
      */
     public void blacklistToken(String token) {
-        blacklistedTokens.add(token);
+        long expiresAt;
+        try {
+            expiresAt = jwtService.parse(token).getPayload().getExpiration().getTime();
+        } catch (Exception e) {
+            // Invalid or already expired tokens are rejected anyway
+            return;
+        }
+        var digest = TokenDigest.of(token);
+        addLocal(digest, expiresAt);
+        // Persist so the other nodes pick it up on their next sync
+        revocations.insertIfAbsent(digest.toBytes(), Instant.ofEpochMilli(expiresAt));
+    }
 
-        // Optional: Clean up expired tokens periodically to prevent memory leaks
-        cleanupExpiredTokens();
+    private void addLocal(TokenDigest digest, long expiresAt) {
+        if (blacklistedTokens.put(digest, expiresAt) == null) {
+            bloom.put(digest);
+            synchronized (byExpiry) {
+                byExpiry.add(new Expiring(digest, expiresAt));
+            }
+        }
+        verifiedTokens.invalidate(digest);
     }
 
     /**
      * Check if a token is blacklisted
      */
     public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokens.contains(token);
+        return isTokenBlacklisted(TokenDigest.of(token));
+    }
+
+    public boolean isTokenBlacklisted(TokenDigest digest) {
+        // Almost every token is not revoked: let the Bloom filter answer that
+        if (!bloom.mightContain(digest))
+            return false;
+        boolean revoked = blacklistedTokens.containsKey(digest);
+        if (!revoked)
+            bloom.recordFalsePositive();
+        return revoked;
     }
 
     /**
-     * Remove expired tokens from blacklist to save memory
-     * This is called automatically when blacklisting tokens
+     * Remove expired tokens from blacklist to save memory.
+     * Runs in the background and only pops entries whose expiry has passed.
      */
-    private void cleanupExpiredTokens() {
-        try {
-            blacklistedTokens.removeIf(token -> {
-                try {
-                    var jws = jwtService.parse(token);
-                    Claims claims = jws.getPayload();
-                    Date expiration = claims.getExpiration();
-                    return expiration.before(Date.from(Instant.now()));
-                } catch (Exception e) {
-                    // If token is invalid/expired, remove it from blacklist
-                    return true;
-                }
-            });
-        } catch (Exception e) {
-            // Ignore cleanup errors - they're not critical
+    @Scheduled(fixedDelayString = "${security.jwt.blacklist.sweepIntervalMs:30000}")
+    public void cleanupExpiredTokens() {
+        long now = System.currentTimeMillis();
+        synchronized (byExpiry) {
+            Expiring head;
+            while ((head = byExpiry.peek()) != null && head.expiresAtMillis() <= now) {
+                byExpiry.poll();
+                blacklistedTokens.remove(head.digest(), head.expiresAtMillis());
+            }
+        }
+    }
+
+    /**
+     * Catch the local replica up with revocations made on other nodes.
+     * Each run restarts slightly behind the high-water mark because revoked_at
+     * is assigned at insert time and rows can commit out of order.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.syncIntervalMs:2000}")
+    public synchronized void syncFromStore() {
+        Instant fromTs = syncedRevokedAt.minusSeconds(syncOverlapSeconds);
+        long fromId = 0;
+        if (fromTs.isBefore(Instant.EPOCH))
+            fromTs = Instant.EPOCH;
+
+        List<TokenRevocation> page;
+        do {
+            page = revocations.findRevokedAfter(fromTs, fromId, syncBatchSize);
+            for (TokenRevocation r : page) {
+                addLocal(TokenDigest.fromBytes(r.getDigest()), r.getExpiresAt().toEpochMilli());
+                fromTs = r.getRevokedAt();
+                fromId = r.getId();
+            }
+        } while (page.size() == syncBatchSize);
+
+        if (fromTs.isAfter(syncedRevokedAt))
+            syncedRevokedAt = fromTs;
+    }
+
+    /**
+     * Delete expired rows from the shared store in bounded batches
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.pruneIntervalMs:60000}")
+    public void pruneExpiredRevocations() {
+        while (revocations.deleteExpiredBatch(pruneBatchSize) == pruneBatchSize) {
+            // keep going until a partial batch shows we've caught up
         }
     }
 
@@ -71,6 +157,10 @@ public class TokenBlacklistService {
      * Clear all blacklisted tokens (mainly for testing)
      */
     public void clearBlacklist() {
-        blacklistedTokens.clear();
+        synchronized (byExpiry) {
+            byExpiry.clear();
+            blacklistedTokens.clear();
+            bloom.clear();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.company.platform.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Fixed-size SHA-256 fingerprint of a bearer token. Used as a compact map key
+ * so we never have to keep the full token string around.
+ */
+public record TokenDigest(long h0, long h1, long h2, long h3) {
+
+    public static TokenDigest of(String token) {
+        return fromBytes(sha256(token));
+    }
+
+    public static TokenDigest fromBytes(byte[] bytes) {
+        var buf = ByteBuffer.wrap(bytes);
+        return new TokenDigest(buf.getLong(), buf.getLong(), buf.getLong(), buf.getLong());
+    }
+
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(32).putLong(h0).putLong(h1).putLong(h2).putLong(h3).array();
+    }
+
+    static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.company.platform.security;
+
+import com.company.platform.repo.PlatformOwnerRepo;
+import com.company.platform.repo.UserRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Per-subject token epochs. Every access token carries the epoch of its subject
+ * at issue time; bumping the epoch revokes all earlier tokens with one write.
+ * <p>
+ * Current epochs are cached in memory, loaded lazily and invalidated locally
+ * on change. Other nodes pick the change up when their cached entry expires
+ * ({@code security.jwt.epochCache.ttlSeconds}); the cache holds at most
+ * {@code security.jwt.epochCache.maxSize} subjects.
+ */
+@Service
+public class TokenEpochService {
+
+    private final UserRepo users;
+    private final PlatformOwnerRepo owners;
+    private final Cache<UUID, Long> epochs;
+
+    public TokenEpochService(UserRepo users, PlatformOwnerRepo owners,
+            @Value("${security.jwt.epochCache.ttlSeconds:30}") long ttlSeconds,
+            @Value("${security.jwt.epochCache.maxSize:10000}") int maxSize) {
+        this.users = users;
+        this.owners = owners;
+        this.epochs = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Check whether the token behind this principal was issued in the subject's
+     * current epoch
+     */
+    public boolean isCurrent(CurrentUser principal) {
+        return principal.tokenEpoch() >= currentEpoch(principal);
+    }
+
+    private long currentEpoch(CurrentUser principal) {
+        return epochs.get(principal.id(), id -> {
+            var loaded = principal.isPlatformOwner()
+                    ? owners.findTokenEpochById(id)
+                    : users.findTokenEpochById(id);
+            // Deleted subjects get an epoch no token can reach
+            return loaded.orElse(Long.MAX_VALUE);
+        });
+    }
+
+    /**
+     * Revoke every outstanding token of a user ("log out everywhere")
+     */
+    @Transactional
+    public void revokeAllForUser(UUID userId) {
+        users.incrementTokenEpoch(userId);
+        invalidate(userId);
+    }
+
+    /**
+     * Revoke every outstanding token of a platform owner
+     */
+    @Transactional
+    public void revokeAllForPlatformOwner(UUID ownerId) {
+        owners.incrementTokenEpoch(ownerId);
+        invalidate(ownerId);
+    }
+
+    /**
+     * Drop the cached epoch of a subject. Inside a transaction this is deferred
+     * until commit so a concurrent request cannot re-cache the old value.
+     */
+    public void invalidate(UUID subjectId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    epochs.invalidate(subjectId);
+                }
+            });
+        } else {
+            epochs.invalidate(subjectId);
+        }
+    }
+
+    long cachedSubjects() {
+        epochs.cleanUp();
+        return epochs.estimatedSize();
+    }
+}
@@ -0,0 +1,95 @@
+package com.company.platform.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates bearer tokens on behalf of other services: signature, expiry,
+ * blacklist and token epoch - the same checks {@link JwtAuthFilter} applies.
+ * Large batches are split into chunks and verified on a dedicated pool.
+ */
+@Service
+public class TokenIntrospectionService {
+
+    public record Result(boolean active, UUID sub, String email, String subType, Long exp) {
+        static final Result INACTIVE = new Result(false, null, null, null, null);
+    }
+
+    private final JwtService jwt;
+    private final TokenBlacklistService tokenBlacklist;
+    private final TokenEpochService tokenEpochs;
+    private final ExecutorService pool;
+    private final int chunkSize;
+
+    public TokenIntrospectionService(JwtService jwt, TokenBlacklistService tokenBlacklist,
+            TokenEpochService tokenEpochs,
+            @Value("${security.introspection.chunkSize:64}") int chunkSize) {
+        this.jwt = jwt;
+        this.tokenBlacklist = tokenBlacklist;
+        this.tokenEpochs = tokenEpochs;
+        this.chunkSize = chunkSize;
+        var seq = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            var t = new Thread(r, "introspect-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Introspect a batch of tokens. Results are in the same order as the input.
+     */
+    public List<Result> introspect(List<String> tokens) {
+        if (tokens.size() <= chunkSize)
+            return introspectChunk(tokens);
+
+        var futures = new ArrayList<CompletableFuture<List<Result>>>();
+        for (int from = 0; from < tokens.size(); from += chunkSize) {
+            var chunk = tokens.subList(from, Math.min(from + chunkSize, tokens.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> introspectChunk(chunk), pool));
+        }
+        var results = new ArrayList<Result>(tokens.size());
+        for (var f : futures)
+            results.addAll(f.join());
+        return results;
+    }
+
+    private List<Result> introspectChunk(List<String> tokens) {
+        var results = new ArrayList<Result>(tokens.size());
+        for (String token : tokens)
+            results.add(introspect(token));
+        return results;
+    }
+
+    public Result introspect(String token) {
+        if (token == null || token.isEmpty())
+            return Result.INACTIVE;
+        try {
+            var digest = TokenDigest.of(token);
+            if (tokenBlacklist.isTokenBlacklisted(digest))
+                return Result.INACTIVE;
+            var verified = jwt.verify(token, digest);
+            var p = verified.principal();
+            if (!tokenEpochs.isCurrent(p))
+                return Result.INACTIVE;
+            return new Result(true, p.id(), p.email(), p.subType(), verified.expiresAtMillis() / 1000);
+        } catch (Exception e) {
+            // bad signature, expired, malformed -> inactive
+            return Result.INACTIVE;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+}
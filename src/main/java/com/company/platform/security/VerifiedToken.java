@@ -0,0 +1,9 @@
+package com.company.platform.security;
+
+/**
+ * Outcome of a successful signature check: who the token is for, when it
+ * expires, and the algorithm and key id it was signed with, so a cached entry
+ * can be dropped once that key is no longer accepted
+ */
+public record VerifiedToken(CurrentUser principal, long expiresAtMillis, String alg, String kid) {
+}
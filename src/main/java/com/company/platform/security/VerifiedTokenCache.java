@@ -0,0 +1,92 @@
+package com.company.platform.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified.
+ * Entries are keyed by the token digest and expire with the token itself, so a
+ * repeat bearer token skips HMAC verification and JSON parsing entirely.
+ * <p>
+ * When full, Caffeine evicts the entries least likely to be used again in
+ * amortized constant time, so a burst of new tokens neither stalls requests
+ * nor stops fresh tokens from being cached.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<TokenDigest, VerifiedToken> entries;
+
+    public VerifiedTokenCache(@Value("${security.jwt.verifiedCache.maxSize:10000}") int maxSize,
+            MeterRegistry meters) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .executor(Runnable::run) // evict on the calling thread; the work is O(1)
+                .recordStats()
+                .build();
+        FunctionCounter.builder("auth.token.cache.hits", entries, c -> c.stats().hitCount()).register(meters);
+        FunctionCounter.builder("auth.token.cache.misses", entries, c -> c.stats().missCount()).register(meters);
+        Gauge.builder("auth.token.cache.size", entries, Cache::estimatedSize).register(meters);
+    }
+
+    /**
+     * Returns the cached verification, or null if the token has not been
+     * verified yet or its cached entry has expired.
+     */
+    public VerifiedToken get(TokenDigest digest) {
+        return entries.getIfPresent(digest);
+    }
+
+    public void put(TokenDigest digest, VerifiedToken verified) {
+        entries.put(digest, verified);
+    }
+
+    public void invalidate(TokenDigest digest) {
+        entries.invalidate(digest);
+    }
+
+    /**
+     * Get cache statistics (for monitoring)
+     */
+    public long getHitCount() {
+        return entries.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return entries.stats().missCount();
+    }
+
+    public int size() {
+        entries.cleanUp();
+        return (int) entries.estimatedSize();
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<TokenDigest, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+            long millis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,26 +1,166 @@
 package com.company.platform.service;
 
-import com.company.platform.domain.AuditLog;
-import com.company.platform.repo.AuditLogRepo;
+import com.company.platform.audit.AuditCursor;
+import com.company.platform.audit.AuditEvent;
+import com.company.platform.audit.AuditPipeline;
+import com.company.platform.audit.AuditRecord;
+import com.company.platform.err.BadRequestException;
+import com.company.platform.repo.AuditLogQueryRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+/**
+ * Records audit events. Events are handed to the asynchronous
+ * {@link AuditPipeline}, so logging never waits on the database; inside a
+ * transaction the event is only published once the transaction commits.
+ */
 @Service
 public class AuditService {
-    private final AuditLogRepo repo;
+    public static final String LOGIN = "LOGIN";
+    public static final String PLATFORM_LOGIN = "PLATFORM_LOGIN";
+    public static final String LOGOUT = "LOGOUT";
+    public static final String LOGOUT_ALL = "LOGOUT_ALL";
+    public static final String PASSWORD_CHANGE = "PASSWORD_CHANGE";
+    public static final String INVITE_CREATE = "INVITE_CREATE";
+    public static final String INVITE_ACCEPT = "INVITE_ACCEPT";
+    public static final String ORG_CREATE = "ORG_CREATE";
+    public static final String ORG_OWNER_INVITE = "ORG_OWNER_INVITE";
+    public static final String ROLE_CREATE = "ROLE_CREATE";
+    public static final String ROLE_UPDATE = "ROLE_UPDATE";
+    public static final String ROLE_DELETE = "ROLE_DELETE";
+
+    private final AuditPipeline pipeline;
+    private final AuditLogQueryRepo query;
+    private final ObjectMapper mapper;
+    private final int maxPageSize;
+    private final int exportPageSize;
+    private final long exportMaxRows;
+    private final long exportMaxNanos;
 
-    public AuditService(AuditLogRepo repo) {
-        this.repo = repo;
+    public AuditService(AuditPipeline pipeline, AuditLogQueryRepo query, ObjectMapper mapper,
+            @Value("${audit.query.maxPageSize:500}") int maxPageSize,
+            @Value("${audit.export.pageSize:1000}") int exportPageSize,
+            @Value("${audit.export.maxRows:1000000}") long exportMaxRows,
+            @Value("${audit.export.maxSeconds:300}") long exportMaxSeconds) {
+        this.pipeline = pipeline;
+        this.query = query;
+        this.mapper = mapper;
+        this.maxPageSize = maxPageSize;
+        this.exportPageSize = exportPageSize;
+        this.exportMaxRows = exportMaxRows;
+        this.exportMaxNanos = Duration.ofSeconds(exportMaxSeconds).toNanos();
     }
 
     public void log(UUID orgId, UUID actor, String action, String targetType, String targetId, String metaJson) {
-        var log = new AuditLog();
-        log.setOrgId(orgId);
-        log.setActorUserId(actor);
-        log.setAction(action);
-        log.setTargetType(targetType);
-        log.setTargetId(targetId);
-        log.setMeta(metaJson);
-        repo.save(log);
-    }
-}
\ No newline at end of file
+        var event = new AuditEvent(orgId, actor, action, targetType, targetId, metaJson, Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pipeline.publish(event);
+                }
+            });
+        } else {
+            pipeline.publish(event);
+        }
+    }
+
+    /**
+     * Same as above with meta given as a map, serialized to JSON
+     */
+    public void log(UUID orgId, UUID actor, String action, String targetType, String targetId,
+            Map<String, ?> meta) {
+        String json;
+        try {
+            json = meta == null ? null : mapper.writeValueAsString(meta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Audit meta is not serializable", e);
+        }
+        log(orgId, actor, action, targetType, targetId, json);
+    }
+
+    public void log(UUID orgId, UUID actor, String action, String targetType, String targetId) {
+        log(orgId, actor, action, targetType, targetId, (String) null);
+    }
+
+    /**
+     * One page of audit records, newest first. Pass the previous page's
+     * nextCursor to continue; nextCursor is null on the last page.
+     */
+    public Page page(AuditLogQueryRepo.Filter filter, String cursor, int limit) {
+        filter = checked(filter);
+        int n = Math.max(1, Math.min(limit, maxPageSize));
+        var after = cursor == null || cursor.isBlank() ? null : AuditCursor.decode(cursor);
+        // fetch one extra row to learn whether another page exists
+        var rows = query.page(filter, after, n + 1);
+        if (rows.size() <= n)
+            return new Page(rows, null);
+        var items = rows.subList(0, n);
+        return new Page(items, AuditCursor.after(items.get(n - 1)).encode());
+    }
+
+    /**
+     * Feed matching records to the sink, newest first, one keyset page per
+     * query. No connection or snapshot is held while the sink writes to a
+     * (possibly slow) client, so exporters can't drain the pool or hold back
+     * vacuum. An export stops after maxRows rows or maxSeconds; the result
+     * then carries the cursor to continue from.
+     */
+    public Export export(AuditLogQueryRepo.Filter filter, String cursor, Consumer<AuditRecord> sink) {
+        filter = checked(filter);
+        var after = cursor == null || cursor.isBlank() ? null : AuditCursor.decode(cursor);
+        long deadline = System.nanoTime() + exportMaxNanos;
+        long rows = 0;
+        while (true) {
+            int n = (int) Math.max(1, Math.min(exportPageSize, exportMaxRows - rows));
+            var page = query.page(filter, after, n);
+            page.forEach(sink);
+            rows += page.size();
+            if (page.size() < n)
+                return new Export(rows, null);
+            after = AuditCursor.after(page.get(page.size() - 1));
+            if (rows >= exportMaxRows || System.nanoTime() - deadline > 0)
+                return new Export(rows, after.encode());
+        }
+    }
+
+    /**
+     * The meta filter must be a non-empty JSON object; it is passed on
+     * re-serialized, so malformed input never reaches the database
+     */
+    private AuditLogQueryRepo.Filter checked(AuditLogQueryRepo.Filter f) {
+        if (f.metaContains() == null || f.metaContains().isBlank())
+            return new AuditLogQueryRepo.Filter(f.orgId(), f.actorUserId(), f.action(), f.from(), f.to(), null);
+        JsonNode meta;
+        try {
+            meta = mapper.readTree(f.metaContains());
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("meta must be a JSON object");
+        }
+        if (meta == null || !meta.isObject() || meta.isEmpty())
+            throw new BadRequestException("meta must be a non-empty JSON object");
+        return new AuditLogQueryRepo.Filter(f.orgId(), f.actorUserId(), f.action(), f.from(), f.to(),
+                meta.toString());
+    }
+
+    public record Page(List<AuditRecord> items, String nextCursor) {
+    }
+
+    /**
+     * nextCursor is null when every matching row was exported
+     */
+    public record Export(long rows, String nextCursor) {
+    }
+}
@@ -4,34 +4,58 @@ import com.company.platform.domain.User;
 import com.company.platform.domain.Invite;
 import com.company.platform.domain.OrgMembership;
 import com.company.platform.err.BadRequestException;
+import com.company.platform.domain.Organization;
 import com.company.platform.repo.UserRepo;
 import com.company.platform.repo.InviteRepo;
-import com.company.platform.repo.OrgMembershipRepo;
+import com.company.platform.repo.OrganizationRepo;
+import com.company.platform.security.CurrentUser;
+import com.company.platform.security.InviteCredentials;
 import com.company.platform.security.JwtService;
 import com.company.platform.security.TokenBlacklistService;
+import com.company.platform.security.TokenEpochService;
+import com.company.platform.guard.MembershipCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class AuthService {
     private final UserRepo users;
     private final InviteRepo invites;
-    private final OrgMembershipRepo memberships;
+    private final OrganizationRepo orgs;
     private final PasswordEncoder encoder;
     private final JwtService jwt;
     private final TokenBlacklistService tokenBlacklist;
+    private final TokenEpochService tokenEpochs;
+    private final RefreshTokenService refreshTokens;
+    private final InviteCredentials inviteCredentials;
+    private final AuditService audit;
+    private final MembershipCache membershipCache;
 
-    public AuthService(UserRepo users, InviteRepo invites, OrgMembershipRepo memberships,
-            PasswordEncoder encoder, JwtService jwt, TokenBlacklistService tokenBlacklist) {
+    @PersistenceContext
+    private EntityManager em;
+
+    public AuthService(UserRepo users, InviteRepo invites, OrganizationRepo orgs,
+            PasswordEncoder encoder, JwtService jwt, TokenBlacklistService tokenBlacklist,
+            TokenEpochService tokenEpochs, RefreshTokenService refreshTokens,
+            InviteCredentials inviteCredentials, AuditService audit, MembershipCache membershipCache) {
         this.users = users;
         this.invites = invites;
-        this.memberships = memberships;
+        this.orgs = orgs;
         this.encoder = encoder;
         this.jwt = jwt;
         this.tokenBlacklist = tokenBlacklist;
+        this.tokenEpochs = tokenEpochs;
+        this.refreshTokens = refreshTokens;
+        this.inviteCredentials = inviteCredentials;
+        this.audit = audit;
+        this.membershipCache = membershipCache;
     }
 
     @Transactional
@@ -46,76 +70,125 @@ public class AuthService {
             // Check if user has a temporary password and must change it
             if (user.isMustChangePassword() && user.getTempPasswordHash() != null) {
                 // For temporary password users, check against temp password hash
-                if (!encoder.matches(password, user.getTempPasswordHash()))
+                if (!inviteCredentials.matchesUserTemp(password, user.getTempPasswordHash()))
                     throw new BadRequestException("Invalid credentials");
             } else {
                 // For regular users, check against regular password hash
                 if (!encoder.matches(password, user.getPasswordHash()))
                     throw new BadRequestException("Invalid credentials");
+                // Transparently move outdated hashes to the current algorithm/cost
+                if (encoder.upgradeEncoding(user.getPasswordHash())) {
+                    user.setPasswordHash(encoder.encode(password));
+                    users.save(user);
+                }
             }
 
-            String token = jwt.generateAccessTokenForUser(user.getId(), user.getEmail());
-            return new LoginResult(token, user.isMustChangePassword());
+            String token = jwt.generateAccessTokenForUser(user.getId(), user.getEmail(), user.getTokenEpoch());
+            // Temp-password sessions are not renewable; the refresh token comes with the real password
+            String refreshToken = user.isMustChangePassword() ? null : refreshTokens.issue(principal(user));
+            audit.log(null, user.getId(), AuditService.LOGIN, "USER", user.getId().toString());
+            return new LoginResult(token, user.isMustChangePassword(), refreshToken);
         } else {
-            // User doesn't exist - check if they have a pending invitation
-            var pendingInvite = invites.findByEmailAndStatus(email.toLowerCase(), "PENDING");
+            // User doesn't exist - accept their pending invitations
+            return acceptInvites(email.toLowerCase(), password);
+        }
+    }
 
-            if (pendingInvite.isPresent()) {
-                Invite invite = pendingInvite.get();
+    /**
+     * First login of an invited person: the presented token / temp password must
+     * match one of their pending invites, and then every still-valid pending
+     * invite is accepted at once - one query for the invites, one user insert,
+     * one batch of memberships and one set-based UPDATE of the invites.
+     */
+    private LoginResult acceptInvites(String email, String secret) {
+        var pending = invites.findPendingByEmail(email);
 
-                // Check if invitation has expired
-                if (invite.getExpiresAt().isBefore(Instant.now()))
-                    throw new BadRequestException("Invitation has expired");
+        // Token invites first: checking them is cheap, password-mode invites need the slow hash
+        Invite presented = pending.stream()
+                .sorted(Comparator.comparing(i -> i.getTokenHash() == null))
+                .filter(i -> inviteCredentials.matches(secret, i))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Invalid credentials"));
 
-                // Verify the temp password matches the invitation
-                if (!encoder.matches(password, invite.getTempPasswordHash()))
-                    throw new BadRequestException("Invalid credentials");
+        // Check if invitation has expired
+        var now = Instant.now();
+        if (presented.getExpiresAt().isBefore(now))
+            throw new BadRequestException("Invitation has expired");
 
-                // Auto-convert invitation to user account
-                User newUser = new User();
-                newUser.setEmail(email.toLowerCase());
-                newUser.setTempPasswordHash(invite.getTempPasswordHash());
-                newUser.setPasswordHash(encoder.encode("PLACEHOLDER")); // Will be replaced when they change password
-                newUser.setMustChangePassword(true);
-                newUser.setDisplayName(email.toLowerCase()); // Default display name to email, they can change it later
-                newUser = users.save(newUser);
-
-                // Create org membership
-                OrgMembership membership = new OrgMembership();
-                membership.setOrgId(invite.getOrgId());
-                membership.setUserId(newUser.getId());
-                membership.setRole(invite.getRole());
-                memberships.save(membership);
-
-                // Mark invitation as accepted
-                invite.setAcceptedAt(Instant.now());
-                invite.setStatus("ACCEPTED");
-                invites.save(invite);
-
-                // Return JWT token for the newly created user (always mustChangePassword=true
-                // for new users)
-                String token = jwt.generateAccessTokenForUser(newUser.getId(), newUser.getEmail());
-                return new LoginResult(token, true);
-            } else {
-                // No user and no invitation found
-                throw new BadRequestException("Invalid credentials");
-            }
+        // Auto-convert invitation to user account
+        User newUser = new User();
+        newUser.setEmail(email);
+        newUser.setTempPasswordHash(inviteCredentials.userTempHash(presented));
+        newUser.setPasswordHash(InviteCredentials.UNUSABLE_PASSWORD); // Replaced when they change password
+        newUser.setMustChangePassword(true);
+        newUser.setDisplayName(email); // Default display name to email, they can change it later
+        // persist, not save: ids are pre-assigned, so save() would merge and SELECT first
+        em.persist(newUser);
+
+        // One membership per org; the presented invite wins if an org has several pending
+        var accepted = pending.stream().filter(i -> !i.getExpiresAt().isBefore(now)).toList();
+        var byOrg = new LinkedHashMap<UUID, Invite>();
+        byOrg.put(presented.getOrgId(), presented);
+        accepted.forEach(i -> byOrg.putIfAbsent(i.getOrgId(), i));
+        for (Invite invite : byOrg.values()) {
+            OrgMembership membership = new OrgMembership();
+            membership.setOrgId(invite.getOrgId());
+            membership.setUserId(newUser.getId());
+            membership.setRole(invite.getRole());
+            em.persist(membership);
+            membershipCache.invalidate(membership.getOrgId(), membership.getUserId());
         }
+
+        // Mark invitations as accepted
+        invites.markAccepted(accepted.stream().map(Invite::getId).toList(), now);
+
+        var names = orgs.findAllById(byOrg.keySet()).stream()
+                .collect(Collectors.toMap(Organization::getId, Organization::getName));
+        for (Invite invite : accepted)
+            audit.log(invite.getOrgId(), newUser.getId(), AuditService.INVITE_ACCEPT, "INVITE",
+                    invite.getId().toString(), Map.of("role", invite.getRole().getName()));
+        audit.log(null, newUser.getId(), AuditService.LOGIN, "USER", newUser.getId().toString());
+
+        var joined = byOrg.values().stream()
+                .map(i -> new JoinedOrg(i.getOrgId(), names.get(i.getOrgId()), i.getRole().getName()))
+                .toList();
+
+        // Return JWT token for the newly created user (always mustChangePassword=true
+        // for new users)
+        String token = jwt.generateAccessTokenForUser(newUser.getId(), newUser.getEmail(), newUser.getTokenEpoch());
+        return new LoginResult(token, true, null, joined);
     }
 
-    public void logout(String token) {
+    public void logout(UUID userId, String token, String refreshToken) {
         // Add token to blacklist so it can't be used again
-        tokenBlacklist.blacklistToken(token);
+        if (token != null)
+            tokenBlacklist.blacklistToken(token);
+        if (refreshToken != null)
+            refreshTokens.revoke(refreshToken);
+        if (userId != null)
+            audit.log(null, userId, AuditService.LOGOUT, "USER", userId.toString());
+    }
+
+    /**
+     * Revoke every token the user currently holds, on every device
+     */
+    public void logoutEverywhere(UUID userId) {
+        tokenEpochs.revokeAllForUser(userId);
+        audit.log(null, userId, AuditService.LOGOUT_ALL, "USER", userId.toString());
     }
 
+    /**
+     * Change the password and revoke all previously issued tokens.
+     * Returns fresh tokens so the caller stays signed in.
+     */
     @Transactional
-    public void changePassword(String email, String currentPassword, String newPassword) {
+    public LoginResult changePassword(String email, String currentPassword, String newPassword) {
         User u = users.findByEmailIgnoreCase(email).orElseThrow(() -> new BadRequestException("User not found"));
 
         // Verify current password
         if (u.isMustChangePassword() && u.getTempPasswordHash() != null) {
             // For users who must change password, verify against temp password
-            if (!encoder.matches(currentPassword, u.getTempPasswordHash()))
+            if (!inviteCredentials.matchesUserTemp(currentPassword, u.getTempPasswordHash()))
                 throw new BadRequestException("Current password is incorrect");
         } else {
             // For users with regular passwords, verify against regular password hash
@@ -127,7 +200,23 @@ public class AuthService {
         u.setPasswordHash(encoder.encode(newPassword));
         u.setTempPasswordHash(null); // Clear temp password
         u.setMustChangePassword(false); // No longer needs to change password
+        u.setTokenEpoch(u.getTokenEpoch() + 1); // Invalidate tokens issued with the old password
         users.save(u);
+        tokenEpochs.invalidate(u.getId());
+        audit.log(null, u.getId(), AuditService.PASSWORD_CHANGE, "USER", u.getId().toString());
+
+        String token = jwt.generateAccessTokenForUser(u.getId(), u.getEmail(), u.getTokenEpoch());
+        return new LoginResult(token, false, refreshTokens.issue(principal(u)));
+    }
+
+    private static CurrentUser principal(User u) {
+        return new CurrentUser(u.getId(), u.getEmail(), "USER", u.getTokenEpoch());
+    }
+
+    /**
+     * An organization joined by accepting an invite at login
+     */
+    public record JoinedOrg(UUID orgId, String name, String role) {
     }
 
     /**
@@ -136,10 +225,19 @@ public class AuthService {
     public static class LoginResult {
         private final String token;
         private final boolean mustChangePassword;
+        private final String refreshToken;
+        private final List<JoinedOrg> joinedOrgs;
+
+        public LoginResult(String token, boolean mustChangePassword, String refreshToken) {
+            this(token, mustChangePassword, refreshToken, null);
+        }
 
-        public LoginResult(String token, boolean mustChangePassword) {
+        public LoginResult(String token, boolean mustChangePassword, String refreshToken,
+                List<JoinedOrg> joinedOrgs) {
             this.token = token;
             this.mustChangePassword = mustChangePassword;
+            this.refreshToken = refreshToken;
+            this.joinedOrgs = joinedOrgs;
         }
 
         public String getToken() {
@@ -149,5 +247,16 @@ public class AuthService {
         public boolean isMustChangePassword() {
             return mustChangePassword;
         }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        /**
+         * Orgs joined by this login, or null when no invites were accepted
+         */
+        public List<JoinedOrg> getJoinedOrgs() {
+            return joinedOrgs;
+        }
     }
 }
\ No newline at end of file
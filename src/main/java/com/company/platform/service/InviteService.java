@@ -2,67 +2,254 @@ package com.company.platform.service;
 
 import com.company.platform.domain.*;
 import com.company.platform.err.BadRequestException;
+import com.company.platform.err.ForbiddenException;
+import com.company.platform.guard.Permission;
 import com.company.platform.repo.*;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.company.platform.security.InviteCredentials;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.UUID;
+import java.util.*;
 
 @Service
 public class InviteService {
+    private static final Logger log = LoggerFactory.getLogger(InviteService.class);
+
     private final InviteRepo invites;
     private final RoleRepo roles;
-    private final PasswordEncoder encoder;
-    private final SecureRandom secureRandom = new SecureRandom();
+    private final InviteCredentials credentials;
+    private final AuditService audit;
+    private final TransactionTemplate tx;
+    private final int bulkChunkSize;
+    private final int bulkMaxRows;
+    private final int expiryBatchSize;
+
+    @PersistenceContext
+    private EntityManager em;
 
     // Default expiration: 72 hours (3 days)
     private static final int DEFAULT_EXPIRY_HOURS = 72;
 
-    // Password generation characters (excluding ambiguous characters like 0, O, I,
-    // l)
-    private static final String PASSWORD_CHARS = "ABCDEFGHJKMNPQRSTUVWXYZabcdefghijkmnpqrstuvwxyz23456789";
-
-    public InviteService(InviteRepo invites, RoleRepo roles, PasswordEncoder encoder) {
+    public InviteService(InviteRepo invites, RoleRepo roles, InviteCredentials credentials,
+            AuditService audit, PlatformTransactionManager txManager,
+            @Value("${invites.bulk.chunkSize:500}") int bulkChunkSize,
+            @Value("${invites.bulk.maxRows:10000}") int bulkMaxRows,
+            @Value("${invites.expiry.batchSize:1000}") int expiryBatchSize) {
         this.invites = invites;
         this.roles = roles;
-        this.encoder = encoder;
-    }
-
-    /**
-     * Generates a secure random temporary password
-     */
-    private String generateTempPassword() {
-        StringBuilder password = new StringBuilder(12);
-        for (int i = 0; i < 12; i++) {
-            password.append(PASSWORD_CHARS.charAt(secureRandom.nextInt(PASSWORD_CHARS.length())));
-        }
-        return password.toString();
+        this.credentials = credentials;
+        this.audit = audit;
+        this.tx = new TransactionTemplate(txManager);
+        this.bulkChunkSize = bulkChunkSize;
+        this.bulkMaxRows = bulkMaxRows;
+        this.expiryBatchSize = expiryBatchSize;
     }
 
     @Transactional
-    public InviteResponse createInvite(UUID orgId, UUID invitedByUserId, String email, String roleName) {
-        var role = roles.findByNameAndOrgIdIsNull(roleName)
+    public InviteResponse createInvite(UUID orgId, UUID invitedByUserId, long granted, String email,
+            String roleName) {
+        var role = roles.findAssignable(orgId, roleName)
                 .orElseThrow(() -> new BadRequestException("Role not found: " + roleName));
+        if (!Permission.canGrant(granted, role.getPermissions()))
+            throw new ForbiddenException("Cannot invite with a role that has permissions you don't have");
 
-        // Generate temporary password automatically
-        String tempPassword = generateTempPassword();
+        // Generate the invite token (or temporary password) automatically
+        var issued = credentials.issue();
 
         var inv = new Invite();
         inv.setOrgId(orgId);
         inv.setEmail(email.toLowerCase());
         inv.setRole(role);
-        inv.setTempPasswordHash(encoder.encode(tempPassword));
+        issued.applyTo(inv);
         inv.setExpiresAt(Instant.now().plus(DEFAULT_EXPIRY_HOURS, ChronoUnit.HOURS));
         inv.setInvitedByUserId(invitedByUserId);
         inv.setStatus("PENDING");
-        inv = invites.save(inv);
+        if (invites.insertPendingIfAbsent(inv) == 0)
+            throw new BadRequestException("Pending invitation already exists for this email in this organization");
+        auditCreated(inv);
+
+        // Return both the invitation and the plain text secret for the response
+        return new InviteResponse(inv, issued.secret());
+    }
+
+    /**
+     * Bulk variant of createInvite; granted is the inviter's permission mask.
+     * Every row is read and validated before anything is inserted, so an
+     * upload over the row limit or with a malformed row fails as a whole with
+     * nothing created (rows are small and capped at maxRows, so holding them
+     * is cheap). Roles are resolved once per name, credentials for a chunk are
+     * issued in one go (hashed in parallel in password mode), and each chunk is
+     * inserted in its own transaction as one JDBC batch. Bad rows, repeated
+     * emails and emails with an invite already pending are reported per row; a
+     * chunk that fails to insert is retried row by row without aborting the
+     * rest. Once a chunk has committed, the results are always returned: if a
+     * later chunk can't be processed at all (e.g. the hashing pool is
+     * saturated), its rows and the ones after it are reported as failed.
+     */
+    public List<BulkResult> createInvitesBulk(UUID orgId, UUID invitedByUserId, long granted,
+            Iterator<BulkRow> rows) {
+        var roleCache = new HashMap<String, Optional<Role>>();
+        var seen = new HashSet<String>();
+        var results = new ArrayList<BulkResult>();
+        var accepted = new ArrayList<PendingRow>();
+        int rowNo = 0;
+        while (rows.hasNext()) {
+            if (rowNo >= bulkMaxRows)
+                throw new BadRequestException("Too many rows, max " + bulkMaxRows);
+            var row = rows.next();
+            rowNo++;
+            String email = row.email() == null ? "" : row.email().trim().toLowerCase();
+            if (email.isEmpty() || email.indexOf('@') < 1) {
+                results.add(BulkResult.failed(rowNo, email, "Invalid email"));
+                continue;
+            }
+            var role = row.roleName() == null ? Optional.<Role>empty()
+                    : roleCache.computeIfAbsent(row.roleName(), n -> roles.findAssignable(orgId, n));
+            if (role.isEmpty()) {
+                results.add(BulkResult.failed(rowNo, email, "Role not found: " + row.roleName()));
+                continue;
+            }
+            if (!Permission.canGrant(granted, role.get().getPermissions())) {
+                results.add(BulkResult.failed(rowNo, email, "Role has permissions you don't have"));
+                continue;
+            }
+            if (!seen.add(email)) {
+                results.add(BulkResult.duplicate(rowNo, email, "Email repeated in this request"));
+                continue;
+            }
+            accepted.add(new PendingRow(rowNo, email, role.get()));
+        }
+
+        for (int from = 0; from < accepted.size(); from += bulkChunkSize) {
+            var chunk = accepted.subList(from, Math.min(from + bulkChunkSize, accepted.size()));
+            try {
+                results.addAll(insertChunk(orgId, invitedByUserId, chunk));
+            } catch (RuntimeException e) {
+                // Earlier chunks are committed and their secrets exist only in
+                // these results, so report the rest instead of failing the request
+                log.warn("Bulk invite for org {} stopped after {} of {} rows: {}", orgId, from, accepted.size(),
+                        e.toString());
+                String error = "Not processed: " + e.getMessage();
+                for (var r : accepted.subList(from, accepted.size()))
+                    results.add(BulkResult.failed(r.row(), r.email(), error));
+                break;
+            }
+        }
+        results.sort(Comparator.comparingInt(BulkResult::row));
+        return results;
+    }
 
-        // Return both the invitation and the plain text password for the response
-        return new InviteResponse(inv, tempPassword);
+    private List<BulkResult> insertChunk(UUID orgId, UUID invitedByUserId, List<PendingRow> chunk) {
+        var out = new ArrayList<BulkResult>(chunk.size());
+        var pending = new HashSet<>(invites.findPendingEmails(orgId,
+                chunk.stream().map(PendingRow::email).toList()));
+        var fresh = new ArrayList<PendingRow>(chunk.size());
+        for (var r : chunk) {
+            if (pending.contains(r.email()))
+                out.add(BulkResult.duplicate(r.row(), r.email(), "Invite already pending"));
+            else
+                fresh.add(r);
+        }
+        if (fresh.isEmpty())
+            return out;
+
+        var issued = credentials.issueAll(fresh.size());
+
+        var expiresAt = Instant.now().plus(DEFAULT_EXPIRY_HOURS, ChronoUnit.HOURS);
+        var created = new ArrayList<Invite>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            var inv = new Invite();
+            inv.setOrgId(orgId);
+            inv.setEmail(fresh.get(i).email());
+            inv.setRole(fresh.get(i).role());
+            issued.get(i).applyTo(inv);
+            inv.setExpiresAt(expiresAt);
+            inv.setInvitedByUserId(invitedByUserId);
+            inv.setStatus("PENDING");
+            created.add(inv);
+        }
+        try {
+            tx.executeWithoutResult(s -> {
+                // persist, not save: the id is pre-assigned, so save() would merge and SELECT each row first
+                created.forEach(em::persist);
+                em.flush();
+                em.clear();
+            });
+        } catch (RuntimeException e) {
+            // Typically an invite created concurrently for one of the emails: redo the
+            // chunk row by row so only the offending rows are reported
+            log.warn("Bulk invite chunk of {} rows for org {} failed, retrying per row: {}", fresh.size(), orgId,
+                    e.toString());
+            for (int i = 0; i < fresh.size(); i++)
+                out.add(insertOne(fresh.get(i), created.get(i), issued.get(i).secret()));
+            return out;
+        }
+        for (int i = 0; i < fresh.size(); i++) {
+            var r = fresh.get(i);
+            auditCreated(created.get(i));
+            out.add(new BulkResult(r.row(), r.email(), BulkResult.CREATED, created.get(i).getId(),
+                    issued.get(i).secret(), null));
+        }
+        return out;
+    }
+
+    private BulkResult insertOne(PendingRow r, Invite inv, String secret) {
+        try {
+            Integer n = tx.execute(s -> invites.insertPendingIfAbsent(inv));
+            if (n == null || n == 0)
+                return BulkResult.duplicate(r.row(), r.email(), "Invite already pending");
+            auditCreated(inv);
+            return new BulkResult(r.row(), r.email(), BulkResult.CREATED, inv.getId(), secret, null);
+        } catch (RuntimeException e) {
+            return BulkResult.failed(r.row(), r.email(), "Insert failed");
+        }
+    }
+
+    private void auditCreated(Invite inv) {
+        audit.log(inv.getOrgId(), inv.getInvitedByUserId(), AuditService.INVITE_CREATE, "INVITE",
+                inv.getId().toString(), Map.of("email", inv.getEmail(), "role", inv.getRole().getName()));
+    }
+
+    /**
+     * Move invites past their expiry from PENDING to EXPIRED in bounded batches.
+     * SKIP LOCKED lets several instances sweep at once, and keeps the sweeper
+     * clear of invites being accepted right now.
+     */
+    @Scheduled(fixedDelayString = "${invites.expiry.sweepIntervalMs:60000}")
+    public void expireStale() {
+        while (invites.expirePendingBatch(expiryBatchSize) == expiryBatchSize) {
+            // keep going until a partial batch shows we've caught up
+        }
+    }
+
+    private record PendingRow(int row, String email, Role role) {
+    }
+
+    public record BulkRow(String email, String roleName) {
+    }
+
+    public record BulkResult(int row, String email, String status, UUID inviteId, String tempPassword, String error) {
+        public static final String CREATED = "CREATED";
+        public static final String DUPLICATE = "DUPLICATE";
+        public static final String FAILED = "FAILED";
+
+        static BulkResult duplicate(int row, String email, String error) {
+            return new BulkResult(row, email, DUPLICATE, null, null, error);
+        }
+
+        static BulkResult failed(int row, String email, String error) {
+            return new BulkResult(row, email, FAILED, null, null, error);
+        }
     }
 
     /**
@@ -3,51 +3,56 @@ package com.company.platform.service;
 import com.company.platform.domain.*;
 import com.company.platform.err.BadRequestException;
 import com.company.platform.repo.*;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.company.platform.security.InviteCredentials;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 public class OrgService {
+    private static final Logger log = LoggerFactory.getLogger(OrgService.class);
+
     private final OrganizationRepo orgs;
     private final OrgMembershipRepo memberships;
     private final RoleRepo roles;
     private final UserRepo users;
     private final InviteRepo invites;
-    private final PasswordEncoder encoder;
-    private final SecureRandom secureRandom = new SecureRandom();
+    private final InviteCredentials credentials;
+    private final AuditService audit;
+    private final TransactionTemplate tx;
+    private final int importChunkSize;
 
-    // Password generation characters (excluding ambiguous characters like 0, O, I,
-    // l)
-    private static final String PASSWORD_CHARS = "ABCDEFGHJKMNPQRSTUVWXYZabcdefghijkmnpqrstuvwxyz23456789";
+    @PersistenceContext
+    private EntityManager em;
 
     // Default expiration: 72 hours (3 days)
     private static final int DEFAULT_EXPIRY_HOURS = 72;
 
     public OrgService(OrganizationRepo orgs, OrgMembershipRepo memberships, RoleRepo roles,
-            UserRepo users, InviteRepo invites, PasswordEncoder encoder) {
+            UserRepo users, InviteRepo invites, InviteCredentials credentials, AuditService audit,
+            PlatformTransactionManager txManager,
+            @Value("${orgs.import.chunkSize:500}") int importChunkSize) {
         this.orgs = orgs;
         this.memberships = memberships;
         this.roles = roles;
         this.users = users;
         this.invites = invites;
-        this.encoder = encoder;
-    }
-
-    /**
-     * Generates a secure random temporary password
-     */
-    private String generateTempPassword() {
-        StringBuilder password = new StringBuilder(12);
-        for (int i = 0; i < 12; i++) {
-            password.append(PASSWORD_CHARS.charAt(secureRandom.nextInt(PASSWORD_CHARS.length())));
-        }
-        return password.toString();
+        this.credentials = credentials;
+        this.audit = audit;
+        this.tx = new TransactionTemplate(txManager);
+        this.importChunkSize = importChunkSize;
     }
 
     @Transactional
@@ -59,6 +64,7 @@ public class OrgService {
         org.setSlug(slug);
         org.setStatus("ACTIVE");
         org = orgs.save(org);
+        auditOrgCreated(org, ownerUserId);
 
         // NOTE: Platform owner creates the org but is NOT a member
         // The platform owner will create the first actual org owner user next
@@ -78,30 +84,264 @@ public class OrgService {
             throw new BadRequestException("User with this email already exists");
         }
 
-        // Check if there's already a pending invitation for this email in this org
-        if (invites.findByEmailAndOrgIdAndStatus(email.toLowerCase(), orgId, "PENDING").isPresent()) {
-            throw new BadRequestException("Pending invitation already exists for this email in this organization");
-        }
-
         // Get the OWNER role
         var roleOwner = roles.findByNameAndOrgIdIsNull("OWNER")
                 .orElseThrow(() -> new BadRequestException("OWNER role missing"));
 
-        // Generate temporary password automatically
-        String tempPassword = generateTempPassword();
+        // Generate the invite token (or temporary password) automatically
+        var issued = credentials.issue();
 
         // Create the invitation (similar to regular invites)
         var invite = new Invite();
         invite.setOrgId(orgId);
         invite.setEmail(email.toLowerCase());
         invite.setRole(roleOwner);
-        invite.setTempPasswordHash(encoder.encode(tempPassword));
+        issued.applyTo(invite);
         invite.setExpiresAt(Instant.now().plus(DEFAULT_EXPIRY_HOURS, ChronoUnit.HOURS));
         invite.setInvitedByUserId(null); // Platform owner doesn't have a user ID
         invite.setStatus("PENDING");
-        invite = invites.save(invite);
+        // One pending invite per (org, email) is enforced by a unique index, not a prior lookup
+        if (invites.insertPendingIfAbsent(invite) == 0)
+            throw new BadRequestException("Pending invitation already exists for this email in this organization");
+        auditOwnerInvited(invite);
+
+        return new OrgOwnerInviteResponse(invite, issued.secret(), displayName);
+    }
+
+    /**
+     * Bulk createOrgAsOwner + createOrgOwner for tenant migrations. Rows are
+     * pulled from the iterator a chunk at a time and every result is handed to
+     * the sink as soon as it is known, so memory stays flat however large the
+     * upload. Per chunk: one lookup each for taken slugs and existing users,
+     * credentials issued in one go (hashed in parallel in password mode), then
+     * organizations and owner invites inserted as JDBC batches in one
+     * transaction. A chunk that fails to insert is retried row by row.
+     * Results are emitted per chunk, so they are not strictly in row order.
+     * If the import breaks off after results were emitted (a malformed row, a
+     * database outage), the summary of what was done is still returned, with
+     * the error set; rows read but not yet reported were not imported. A
+     * failure before the first result fails the call as a whole.
+     */
+    public ImportSummary importOrgs(UUID platformOwnerId, Iterator<ImportRow> rows, Consumer<ImportResult> sink) {
+        var roleOwner = roles.findByNameAndOrgIdIsNull("OWNER")
+                .orElseThrow(() -> new BadRequestException("OWNER role missing"));
+        var summary = new ImportSummary();
+        Consumer<ImportResult> out = r -> {
+            summary.count(r);
+            sink.accept(r);
+        };
+        try {
+            importRows(rows, roleOwner, platformOwnerId, out);
+        } catch (RuntimeException e) {
+            if (summary.getProcessedRows() == 0)
+                throw e;
+            log.warn("Org import stopped after {} rows", summary.getProcessedRows(), e);
+            summary.error = e instanceof BadRequestException ? e.getMessage() : "Import failed";
+        }
+        return summary;
+    }
+
+    private void importRows(Iterator<ImportRow> rows, Role roleOwner, UUID platformOwnerId,
+            Consumer<ImportResult> out) {
+        var chunk = new ArrayList<ImportRow>(importChunkSize);
+        var rowNos = new ArrayList<Integer>(importChunkSize);
+        int rowNo = 0;
+        while (rows.hasNext()) {
+            var row = rows.next();
+            rowNo++;
+            String name = row.name() == null ? "" : row.name().trim();
+            String email = row.ownerEmail() == null ? "" : row.ownerEmail().trim().toLowerCase();
+            String slug = row.slug() == null || row.slug().isBlank() ? null : row.slug().trim();
+            if (name.isEmpty()) {
+                out.accept(ImportResult.failed(rowNo, slug, email, "Name is required"));
+                continue;
+            }
+            if (email.isEmpty() || email.indexOf('@') < 1) {
+                out.accept(ImportResult.failed(rowNo, slug, email, "Invalid owner email"));
+                continue;
+            }
+            chunk.add(new ImportRow(name, slug, email));
+            rowNos.add(rowNo);
+            if (chunk.size() == importChunkSize) {
+                importChunk(chunk, rowNos, roleOwner, platformOwnerId, out);
+                chunk.clear();
+                rowNos.clear();
+            }
+        }
+        if (!chunk.isEmpty())
+            importChunk(chunk, rowNos, roleOwner, platformOwnerId, out);
+    }
+
+    private void importChunk(List<ImportRow> chunk, List<Integer> rowNos, Role roleOwner, UUID platformOwnerId,
+            Consumer<ImportResult> out) {
+        var takenSlugs = new HashSet<>(orgs.findExistingSlugs(
+                chunk.stream().map(ImportRow::slug).filter(Objects::nonNull).toList()));
+        var existingUsers = new HashSet<>(users.findExistingEmails(
+                chunk.stream().map(ImportRow::ownerEmail).toList()));
+
+        var fresh = new ArrayList<ImportRow>(chunk.size());
+        var freshRowNos = new ArrayList<Integer>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            var r = chunk.get(i);
+            if (r.slug() != null && !takenSlugs.add(r.slug()))
+                out.accept(ImportResult.duplicate(rowNos.get(i), r.slug(), r.ownerEmail(), "Slug already exists"));
+            else if (existingUsers.contains(r.ownerEmail()))
+                out.accept(ImportResult.failed(rowNos.get(i), r.slug(), r.ownerEmail(),
+                        "User with this email already exists"));
+            else {
+                fresh.add(r);
+                freshRowNos.add(rowNos.get(i));
+            }
+        }
+        if (fresh.isEmpty())
+            return;
+
+        var issued = credentials.issueAll(fresh.size());
+        var expiresAt = Instant.now().plus(DEFAULT_EXPIRY_HOURS, ChronoUnit.HOURS);
+        var newOrgs = new ArrayList<Organization>(fresh.size());
+        var newInvites = new ArrayList<Invite>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            var r = fresh.get(i);
+            var org = new Organization();
+            org.setName(r.name());
+            org.setSlug(r.slug());
+            org.setStatus("ACTIVE");
+            newOrgs.add(org);
+
+            var invite = new Invite();
+            invite.setOrgId(org.getId());
+            invite.setEmail(r.ownerEmail());
+            invite.setRole(roleOwner);
+            issued.get(i).applyTo(invite);
+            invite.setExpiresAt(expiresAt);
+            invite.setInvitedByUserId(null); // Platform owner doesn't have a user ID
+            invite.setStatus("PENDING");
+            newInvites.add(invite);
+        }
+
+        try {
+            tx.executeWithoutResult(s -> {
+                // persist, not save: ids are pre-assigned, so save() would merge and SELECT each row first
+                newOrgs.forEach(em::persist);
+                newInvites.forEach(em::persist);
+                em.flush();
+                em.clear();
+            });
+        } catch (RuntimeException e) {
+            // Typically a slug taken concurrently: redo the chunk row by row so only
+            // the offending rows are reported
+            log.warn("Org import chunk of {} rows failed, retrying per row: {}", fresh.size(), e.toString());
+            for (int i = 0; i < fresh.size(); i++) {
+                var org = newOrgs.get(i);
+                var invite = newInvites.get(i);
+                try {
+                    tx.executeWithoutResult(s -> {
+                        em.persist(org);
+                        em.persist(invite);
+                        em.flush();
+                        em.clear();
+                    });
+                } catch (RuntimeException rowError) {
+                    out.accept(ImportResult.failed(freshRowNos.get(i), org.getSlug(), invite.getEmail(),
+                            "Insert failed"));
+                    continue;
+                }
+                auditImported(org, invite, platformOwnerId);
+                out.accept(ImportResult.created(freshRowNos.get(i), org, invite, issued.get(i).secret()));
+            }
+            return;
+        }
+        for (int i = 0; i < fresh.size(); i++) {
+            auditImported(newOrgs.get(i), newInvites.get(i), platformOwnerId);
+            out.accept(ImportResult.created(freshRowNos.get(i), newOrgs.get(i), newInvites.get(i),
+                    issued.get(i).secret()));
+        }
+    }
+
+    private void auditImported(Organization org, Invite invite, UUID platformOwnerId) {
+        auditOrgCreated(org, platformOwnerId);
+        auditOwnerInvited(invite);
+    }
+
+    // Orgs are created by platform owners, who aren't users: they go in meta, not actor_user_id
+    private void auditOrgCreated(Organization org, UUID platformOwnerId) {
+        var meta = new HashMap<String, Object>();
+        meta.put("name", org.getName());
+        if (org.getSlug() != null)
+            meta.put("slug", org.getSlug());
+        if (platformOwnerId != null)
+            meta.put("platformOwnerId", platformOwnerId);
+        audit.log(org.getId(), null, AuditService.ORG_CREATE, "ORGANIZATION", org.getId().toString(), meta);
+    }
+
+    private void auditOwnerInvited(Invite invite) {
+        audit.log(invite.getOrgId(), null, AuditService.ORG_OWNER_INVITE, "INVITE", invite.getId().toString(),
+                Map.of("email", invite.getEmail(), "role", invite.getRole().getName()));
+    }
+
+    public record ImportRow(String name, String slug, String ownerEmail) {
+    }
+
+    public record ImportResult(int row, String status, UUID orgId, String slug, String ownerEmail,
+            UUID inviteId, String tempPassword, String error) {
+        public static final String CREATED = "CREATED";
+        public static final String DUPLICATE = "DUPLICATE";
+        public static final String FAILED = "FAILED";
+
+        static ImportResult created(int row, Organization org, Invite invite, String tempPassword) {
+            return new ImportResult(row, CREATED, org.getId(), org.getSlug(), invite.getEmail(), invite.getId(),
+                    tempPassword, null);
+        }
 
-        return new OrgOwnerInviteResponse(invite, tempPassword, displayName);
+        static ImportResult duplicate(int row, String slug, String ownerEmail, String error) {
+            return new ImportResult(row, DUPLICATE, null, slug, ownerEmail, null, null, error);
+        }
+
+        static ImportResult failed(int row, String slug, String ownerEmail, String error) {
+            return new ImportResult(row, FAILED, null, slug, ownerEmail, null, null, error);
+        }
+    }
+
+    /**
+     * Running totals of an import, emitted as its last line
+     */
+    public static class ImportSummary {
+        private long created;
+        private long duplicate;
+        private long failed;
+        private String error;
+
+        void count(ImportResult r) {
+            switch (r.status()) {
+                case ImportResult.CREATED -> created++;
+                case ImportResult.DUPLICATE -> duplicate++;
+                default -> failed++;
+            }
+        }
+
+        public long getCreated() {
+            return created;
+        }
+
+        public long getDuplicate() {
+            return duplicate;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getProcessedRows() {
+            return created + duplicate + failed;
+        }
+
+        /**
+         * Why the import broke off, or null if every row was processed
+         */
+        @JsonIgnore
+        public String getError() {
+            return error;
+        }
     }
 
     /**
@@ -3,27 +3,70 @@ package com.company.platform.service;
 import com.company.platform.domain.PlatformOwner;
 import com.company.platform.err.BadRequestException;
 import com.company.platform.repo.PlatformOwnerRepo;
+import com.company.platform.security.CurrentUser;
 import com.company.platform.security.JwtService;
+import com.company.platform.security.TokenBlacklistService;
+import com.company.platform.security.TokenEpochService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.UUID;
+
 @Service
 public class PlatformAuthService {
     private final PlatformOwnerRepo owners;
     private final PasswordEncoder encoder;
     private final JwtService jwt;
+    private final TokenEpochService tokenEpochs;
+    private final TokenBlacklistService tokenBlacklist;
+    private final RefreshTokenService refreshTokens;
+    private final AuditService audit;
 
-    public PlatformAuthService(PlatformOwnerRepo owners, PasswordEncoder encoder, JwtService jwt) {
+    public PlatformAuthService(PlatformOwnerRepo owners, PasswordEncoder encoder, JwtService jwt,
+            TokenEpochService tokenEpochs, TokenBlacklistService tokenBlacklist, RefreshTokenService refreshTokens,
+            AuditService audit) {
         this.owners = owners;
         this.encoder = encoder;
         this.jwt = jwt;
+        this.tokenEpochs = tokenEpochs;
+        this.tokenBlacklist = tokenBlacklist;
+        this.refreshTokens = refreshTokens;
+        this.audit = audit;
     }
 
-    public String login(String email, String password) {
+    public AuthService.LoginResult login(String email, String password) {
         PlatformOwner o = owners.findByEmailIgnoreCase(email)
                 .orElseThrow(() -> new BadRequestException("Invalid credentials"));
         if (!encoder.matches(password, o.getPasswordHash()))
             throw new BadRequestException("Invalid credentials");
-        return jwt.generateAccessTokenForPlatformOwner(o.getId(), o.getEmail());
+        // Transparently move outdated hashes to the current algorithm/cost
+        if (encoder.upgradeEncoding(o.getPasswordHash())) {
+            o.setPasswordHash(encoder.encode(password));
+            owners.save(o);
+        }
+        String token = jwt.generateAccessTokenForPlatformOwner(o.getId(), o.getEmail(), o.getTokenEpoch());
+        String refreshToken = refreshTokens.issue(
+                new CurrentUser(o.getId(), o.getEmail(), "PLATFORM", o.getTokenEpoch()));
+        // Platform owners aren't users, so actor_user_id stays empty and the owner is the target
+        audit.log(null, null, AuditService.PLATFORM_LOGIN, "PLATFORM_OWNER", o.getId().toString());
+        return new AuthService.LoginResult(token, false, refreshToken);
+    }
+
+    public void logout(UUID ownerId, String token, String refreshToken) {
+        if (token != null)
+            tokenBlacklist.blacklistToken(token);
+        if (refreshToken != null)
+            refreshTokens.revoke(refreshToken);
+        if (ownerId != null)
+            audit.log(null, null, AuditService.LOGOUT, "PLATFORM_OWNER", ownerId.toString());
+    }
+
+    /**
+     * Revoke every token the platform owner currently holds
+     */
+    public void logoutEverywhere(UUID ownerId) {
+        tokenEpochs.revokeAllForPlatformOwner(ownerId);
+        audit.log(null, null, AuditService.LOGOUT_ALL, "PLATFORM_OWNER", ownerId.toString());
     }
 }
\ No newline at end of file
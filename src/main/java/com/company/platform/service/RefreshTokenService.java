@@ -0,0 +1,133 @@
+package com.company.platform.service;
+
+import com.company.platform.domain.RefreshToken;
+import com.company.platform.err.BadRequestException;
+import com.company.platform.repo.RefreshTokenRepo;
+import com.company.platform.security.CurrentUser;
+import com.company.platform.security.JwtService;
+import com.company.platform.security.TokenDigest;
+import com.company.platform.security.TokenEpochService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque, rotating refresh tokens. Renewing a session is one indexed lookup by
+ * token digest - no password hashing. Every use replaces the token; presenting
+ * an already-replaced token means it leaked, so its whole family is revoked.
+ */
+@Service
+public class RefreshTokenService {
+    private final RefreshTokenRepo repo;
+    private final JwtService jwt;
+    private final TokenEpochService tokenEpochs;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${security.jwt.refreshTokenTtlDays:30}")
+    private long refreshTtlDays;
+    @Value("${security.jwt.refreshTokens.pruneBatchSize:1000}")
+    private int pruneBatchSize;
+
+    public RefreshTokenService(RefreshTokenRepo repo, JwtService jwt, TokenEpochService tokenEpochs) {
+        this.repo = repo;
+        this.jwt = jwt;
+        this.tokenEpochs = tokenEpochs;
+    }
+
+    /**
+     * Start a new refresh token family for a freshly authenticated subject
+     */
+    @Transactional
+    public String issue(CurrentUser subject) {
+        return save(subject, UUID.randomUUID(), UUID.randomUUID());
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token
+     */
+    @Transactional(noRollbackFor = BadRequestException.class)
+    public Tokens refresh(String refreshToken) {
+        var current = repo.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new BadRequestException("Invalid refresh token"));
+        Instant now = Instant.now();
+
+        if (current.getRevokedAt() != null) {
+            // Reuse of a rotated token: someone else has a copy, kill the whole chain
+            repo.revokeFamily(current.getFamilyId(), now);
+            throw new BadRequestException("Invalid refresh token");
+        }
+        if (current.getExpiresAt().isBefore(now))
+            throw new BadRequestException("Refresh token expired");
+
+        var subject = new CurrentUser(current.getSubjectId(), current.getEmail(), current.getSubType(),
+                current.getTokenEpoch());
+        if (!tokenEpochs.isCurrent(subject)) {
+            repo.revokeFamily(current.getFamilyId(), now);
+            throw new BadRequestException("Invalid refresh token");
+        }
+
+        UUID nextId = UUID.randomUUID();
+        if (repo.markRotated(current.getId(), nextId, now) == 0) {
+            // Lost a race with a concurrent use of the same token
+            repo.revokeFamily(current.getFamilyId(), now);
+            throw new BadRequestException("Invalid refresh token");
+        }
+        String next = save(subject, current.getFamilyId(), nextId);
+
+        String accessToken = subject.isPlatformOwner()
+                ? jwt.generateAccessTokenForPlatformOwner(subject.id(), subject.email(), subject.tokenEpoch())
+                : jwt.generateAccessTokenForUser(subject.id(), subject.email(), subject.tokenEpoch());
+        return new Tokens(accessToken, next);
+    }
+
+    /**
+     * Revoke the family of a refresh token (logout). Unknown tokens are ignored.
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        repo.findByTokenHash(hash(refreshToken))
+                .ifPresent(t -> repo.revokeFamily(t.getFamilyId(), Instant.now()));
+    }
+
+    /**
+     * Delete expired refresh tokens in bounded batches
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.refreshTokens.pruneIntervalMs:600000}")
+    public void pruneExpired() {
+        while (repo.deleteExpiredBatch(pruneBatchSize) == pruneBatchSize) {
+            // keep going until a partial batch shows we've caught up
+        }
+    }
+
+    private String save(CurrentUser subject, UUID familyId, UUID id) {
+        byte[] raw = new byte[32];
+        secureRandom.nextBytes(raw);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+
+        var t = new RefreshToken();
+        t.setId(id);
+        t.setTokenHash(hash(token));
+        t.setFamilyId(familyId);
+        t.setSubjectId(subject.id());
+        t.setSubType(subject.subType());
+        t.setEmail(subject.email());
+        t.setTokenEpoch(subject.tokenEpoch());
+        t.setExpiresAt(Instant.now().plus(refreshTtlDays, ChronoUnit.DAYS));
+        repo.save(t);
+        return token;
+    }
+
+    private static byte[] hash(String token) {
+        return TokenDigest.of(token).toBytes();
+    }
+
+    public record Tokens(String accessToken, String refreshToken) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.company.platform.service;
+
+import com.company.platform.domain.Role;
+import com.company.platform.err.BadRequestException;
+import com.company.platform.err.ForbiddenException;
+import com.company.platform.err.NotFoundException;
+import com.company.platform.guard.MembershipCache;
+import com.company.platform.guard.Permission;
+import com.company.platform.repo.RoleRepo;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Org-defined roles. Every change is limited by what the caller holds
+ * (granted): a role can only be given, or be edited to hold, permissions the
+ * caller has, and roles holding more than the caller can't be touched.
+ * Role names are unique per org ignoring case, built-in names included.
+ */
+@Service
+public class RoleService {
+    private static final List<String> BUILT_IN = List.of("OWNER", "ADMIN", "USER");
+
+    private final RoleRepo roles;
+    private final AuditService audit;
+    private final MembershipCache membershipCache;
+
+    public RoleService(RoleRepo roles, AuditService audit, MembershipCache membershipCache) {
+        this.roles = roles;
+        this.audit = audit;
+        this.membershipCache = membershipCache;
+    }
+
+    /**
+     * Built-in roles first, then the org's own
+     */
+    public List<Role> list(UUID orgId) {
+        return roles.findAvailable(orgId);
+    }
+
+    @Transactional
+    public Role create(UUID orgId, UUID actor, long granted, String name, String description,
+            List<String> permissions) {
+        String n = name == null ? "" : name.trim();
+        if (n.isEmpty())
+            throw new BadRequestException("Role name is required");
+        if (BUILT_IN.stream().anyMatch(n::equalsIgnoreCase))
+            throw new BadRequestException("Role name is reserved: " + n);
+        if (roles.findAssignable(orgId, n).isPresent())
+            throw new BadRequestException("Role already exists: " + n);
+        long mask = grantable(granted, permissions);
+
+        var role = new Role();
+        role.setOrgId(orgId);
+        role.setName(n);
+        role.setDescription(description);
+        role.setPermissions(mask);
+        try {
+            roles.saveAndFlush(role);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent create took the name between the check and the insert
+            throw new BadRequestException("Role already exists: " + n);
+        }
+        auditRole(AuditService.ROLE_CREATE, actor, role);
+        return role;
+    }
+
+    /**
+     * Replace an org role's description and permissions
+     */
+    @Transactional
+    public Role update(UUID orgId, UUID roleId, UUID actor, long granted, String description,
+            List<String> permissions) {
+        var role = ownRole(orgId, roleId, granted);
+        role.setDescription(description);
+        role.setPermissions(grantable(granted, permissions));
+        // members holding the role now resolve to a different mask
+        membershipCache.invalidateOrg(orgId);
+        auditRole(AuditService.ROLE_UPDATE, actor, role);
+        return role;
+    }
+
+    @Transactional
+    public void delete(UUID orgId, UUID roleId, UUID actor, long granted) {
+        var role = ownRole(orgId, roleId, granted);
+        try {
+            roles.delete(role);
+            roles.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Role is still held by members or invites");
+        }
+        membershipCache.invalidateOrg(orgId);
+        auditRole(AuditService.ROLE_DELETE, actor, role);
+    }
+
+    private Role ownRole(UUID orgId, UUID roleId, long granted) {
+        var role = roles.findByIdAndOrgId(roleId, orgId)
+                .orElseThrow(() -> new NotFoundException("Role not found"));
+        if (!Permission.canGrant(granted, role.getPermissions()))
+            throw new ForbiddenException("Role has permissions you don't have");
+        return role;
+    }
+
+    private static long grantable(long granted, List<String> permissions) {
+        long mask = Permission.mask(permissions == null ? List.of() : permissions);
+        if (!Permission.canGrant(granted, mask))
+            throw new ForbiddenException("Cannot grant permissions you don't have");
+        return mask;
+    }
+
+    private void auditRole(String action, UUID actor, Role role) {
+        audit.log(role.getOrgId(), actor, action, "ROLE", role.getId().toString(),
+                Map.of("role", role.getName(), "permissions", Permission.names(role.getPermissions())));
+    }
+}
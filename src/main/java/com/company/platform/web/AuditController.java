@@ -0,0 +1,155 @@
+package com.company.platform.web;
+
+import com.company.platform.err.ForbiddenException;
+import com.company.platform.guard.OrgGuard;
+import com.company.platform.guard.Permission;
+import com.company.platform.repo.AuditLogQueryRepo;
+import com.company.platform.security.CurrentUser;
+import com.company.platform.service.AuditService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+
+/**
+ * Audit trail for org members with AUDIT_READ (their org only) and platform owners (any org or
+ * actor). Listings are keyset-paginated via an opaque cursor; exports stream
+ * matching rows as NDJSON. from/to (ISO-8601 instants) bound created_at;
+ * meta is a JSON object the event's meta must contain, e.g.
+ * meta={"email":"a@example.com"} or meta={"role":"ADMIN"}.
+ * <p>
+ * An export always ends with a trailer line, so a cut-off stream can't pass for
+ * a finished one: {"complete":true,"rows":n}, or
+ * {"complete":false,"rows":n,"nextCursor":...} when it reached the export row
+ * or time cap (pass nextCursor as cursor to continue), or
+ * {"error":...,"rows":n} if it failed part-way.
+ */
+@RestController
+public class AuditController {
+    private static final Logger log = LoggerFactory.getLogger(AuditController.class);
+
+    private final AuditService audit;
+    private final OrgGuard guard;
+    private final ObjectMapper mapper;
+
+    public AuditController(AuditService audit, OrgGuard guard, ObjectMapper mapper) {
+        this.audit = audit;
+        this.guard = guard;
+        this.mapper = mapper;
+    }
+
+    @GetMapping("/orgs/{orgId}/audit")
+    public AuditService.Page orgAudit(@PathVariable UUID orgId,
+            @RequestParam(required = false) UUID actorUserId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String meta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication authentication) {
+        requireAuditReader(authentication, orgId);
+        return audit.page(new AuditLogQueryRepo.Filter(orgId, actorUserId, action, from, to, meta), cursor, limit);
+    }
+
+    @GetMapping(path = "/orgs/{orgId}/audit/export", produces = BulkRows.NDJSON)
+    public void orgAuditExport(@PathVariable UUID orgId,
+            @RequestParam(required = false) UUID actorUserId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String meta,
+            @RequestParam(required = false) String cursor,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        requireAuditReader(authentication, orgId);
+        export(new AuditLogQueryRepo.Filter(orgId, actorUserId, action, from, to, meta), cursor, response);
+    }
+
+    @GetMapping("/platform/audit")
+    public AuditService.Page platformAudit(@RequestParam(required = false) UUID orgId,
+            @RequestParam(required = false) UUID actorUserId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String meta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication authentication) {
+        requirePlatformOwner(authentication);
+        return audit.page(new AuditLogQueryRepo.Filter(orgId, actorUserId, action, from, to, meta), cursor, limit);
+    }
+
+    @GetMapping(path = "/platform/audit/export", produces = BulkRows.NDJSON)
+    public void platformAuditExport(@RequestParam(required = false) UUID orgId,
+            @RequestParam(required = false) UUID actorUserId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String meta,
+            @RequestParam(required = false) String cursor,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        requirePlatformOwner(authentication);
+        export(new AuditLogQueryRepo.Filter(orgId, actorUserId, action, from, to, meta), cursor, response);
+    }
+
+    private void export(AuditLogQueryRepo.Filter filter, String cursor, HttpServletResponse response)
+            throws IOException {
+        response.setContentType(BulkRows.NDJSON);
+        OutputStream out = response.getOutputStream();
+        long[] written = { 0 };
+        var trailer = new LinkedHashMap<String, Object>();
+        try {
+            var result = audit.export(filter, cursor, record -> {
+                writeLine(out, record);
+                written[0]++;
+            });
+            trailer.put("complete", result.nextCursor() == null);
+            trailer.put("rows", result.rows());
+            if (result.nextCursor() != null)
+                trailer.put("nextCursor", result.nextCursor());
+        } catch (UncheckedIOException e) {
+            throw e; // the client went away, there's no one left to tell
+        } catch (RuntimeException e) {
+            if (written[0] == 0)
+                throw e; // nothing sent yet (e.g. a bad filter): answer with a regular error
+            log.warn("Audit export failed after {} rows", written[0], e);
+            trailer.put("error", "Export failed");
+            trailer.put("rows", written[0]);
+        }
+        writeLine(out, trailer);
+        out.flush();
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(mapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void requireAuditReader(Authentication authentication, UUID orgId) {
+        var cu = (CurrentUser) authentication.getPrincipal();
+        if (cu == null || !cu.isUser())
+            throw new ForbiddenException("User token required");
+        guard.require(cu.id(), orgId, Permission.AUDIT_READ.bit);
+    }
+
+    private void requirePlatformOwner(Authentication authentication) {
+        var cu = (CurrentUser) authentication.getPrincipal();
+        if (cu == null || !cu.isPlatformOwner())
+            throw new ForbiddenException("Platform owner token required");
+    }
+}
@@ -1,41 +1,75 @@
 package com.company.platform.web;
 
+import com.company.platform.err.ForbiddenException;
 import com.company.platform.service.AuthService;
+import com.company.platform.service.RefreshTokenService;
 import com.company.platform.security.CurrentUser;
+import com.company.platform.security.LoginThrottle;
 import com.company.platform.web.dto.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
     private final AuthService auth;
+    private final RefreshTokenService refreshTokens;
+    private final LoginThrottle throttle;
 
-    public AuthController(AuthService auth) {
+    public AuthController(AuthService auth, RefreshTokenService refreshTokens, LoginThrottle throttle) {
         this.auth = auth;
+        this.refreshTokens = refreshTokens;
+        this.throttle = throttle;
     }
 
     @PostMapping("/login")
-    public TokenResponse login(@RequestBody LoginRequest req) {
-        var loginResult = auth.login(req.email(), req.password());
-        return new TokenResponse(loginResult.getToken(), loginResult.isMustChangePassword());
+    public TokenResponse login(@RequestBody LoginRequest req, HttpServletRequest request) {
+        var loginResult = throttle.guard(req.email(), request.getRemoteAddr(),
+                () -> auth.login(req.email(), req.password()));
+        var joined = loginResult.getJoinedOrgs() == null ? null
+                : loginResult.getJoinedOrgs().stream()
+                        .map(o -> new TokenResponse.JoinedOrg(o.orgId(), o.name(), o.role()))
+                        .toList();
+        return new TokenResponse(loginResult.getToken(), loginResult.isMustChangePassword(),
+                loginResult.getRefreshToken(), joined);
+    }
+
+    @PostMapping("/refresh")
+    public TokenResponse refresh(@RequestBody RefreshRequest req) {
+        var tokens = refreshTokens.refresh(req.refreshToken());
+        return new TokenResponse(tokens.accessToken(), false, tokens.refreshToken());
     }
 
     @PostMapping("/logout")
-    public void logout(HttpServletRequest request) {
+    public void logout(HttpServletRequest request, @RequestBody(required = false) LogoutRequest req,
+            Authentication authentication) {
         String header = request.getHeader("Authorization");
+        String token = null;
         if (header != null && header.startsWith("Bearer ")) {
-            String token = header.substring(7);
-            auth.logout(token);
+            token = header.substring(7);
         }
+        UUID userId = authentication != null && authentication.getPrincipal() instanceof CurrentUser cu
+                && cu.isUser() ? cu.id() : null;
+        auth.logout(userId, token, req == null ? null : req.refreshToken());
         // Always return success - even if no token provided
     }
 
+    @PostMapping("/logout-all")
+    public void logoutAll(Authentication authentication) {
+        CurrentUser cu = (CurrentUser) authentication.getPrincipal();
+        if (cu == null || !cu.isUser())
+            throw new ForbiddenException("User token required");
+        auth.logoutEverywhere(cu.id());
+    }
+
     @PostMapping("/change-password")
-    public void changePassword(@RequestBody ChangePasswordRequest req, Authentication authentication) {
+    public TokenResponse changePassword(@RequestBody ChangePasswordRequest req, Authentication authentication) {
         CurrentUser cu = (CurrentUser) authentication.getPrincipal();
-        auth.changePassword(cu.email(), req.currentPassword(), req.newPassword());
+        // Old tokens are revoked by the change, so hand back a fresh one
+        var result = auth.changePassword(cu.email(), req.currentPassword(), req.newPassword());
+        return new TokenResponse(result.getToken(), false, result.getRefreshToken());
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.company.platform.web;
+
+import com.company.platform.err.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Reads the rows of a bulk request body one at a time, so a large upload is
+ * never held in memory as a whole. Accepts a JSON array
+ * (application/json), one JSON object per line (application/x-ndjson) or
+ * CSV with a header line naming the fields (text/csv).
+ */
+final class BulkRows {
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+
+    private BulkRows() {
+    }
+
+    static <T> Iterator<T> read(InputStream body, String contentType, Class<T> rowType, ObjectMapper mapper)
+            throws IOException {
+        var type = contentType == null ? MediaType.APPLICATION_JSON : MediaType.parseMediaType(contentType);
+        if (type.isCompatibleWith(MediaType.parseMediaType(CSV)))
+            return csv(body, rowType, mapper);
+        // a root-level array is unwrapped element by element; NDJSON is a sequence of root values
+        if (type.isCompatibleWith(MediaType.parseMediaType(NDJSON)) || type.isCompatibleWith(MediaType.APPLICATION_JSON))
+            return unchecked(mapper.readerFor(rowType).readValues(body));
+        throw new BadRequestException("Unsupported content type: " + contentType);
+    }
+
+    private static <T> Iterator<T> unchecked(Iterator<T> it) {
+        return new Iterator<>() {
+            public boolean hasNext() {
+                try {
+                    return it.hasNext();
+                } catch (RuntimeException e) {
+                    throw new BadRequestException("Malformed row: " + e.getMessage());
+                }
+            }
+
+            public T next() {
+                try {
+                    return it.next();
+                } catch (NoSuchElementException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    throw new BadRequestException("Malformed row: " + e.getMessage());
+                }
+            }
+        };
+    }
+
+    private static <T> Iterator<T> csv(InputStream body, Class<T> rowType, ObjectMapper mapper) throws IOException {
+        var in = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String header = in.readLine();
+        if (header == null)
+            return Collections.emptyIterator();
+        var columns = split(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        return new Iterator<>() {
+            private String line = nextLine();
+
+            private String nextLine() {
+                try {
+                    String l;
+                    while ((l = in.readLine()) != null && l.isBlank())
+                        ;
+                    return l;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            public boolean hasNext() {
+                return line != null;
+            }
+
+            public T next() {
+                if (line == null)
+                    throw new NoSuchElementException();
+                var values = split(line);
+                var row = new HashMap<String, String>();
+                for (int i = 0; i < columns.size() && i < values.size(); i++)
+                    row.put(columns.get(i).trim(), values.get(i).trim());
+                line = nextLine();
+                return mapper.convertValue(row, rowType);
+            }
+        };
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields with "" escapes
+     */
+    static List<String> split(String line) {
+        var out = new ArrayList<String>();
+        var cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        out.add(cur.toString());
+        return out;
+    }
+}
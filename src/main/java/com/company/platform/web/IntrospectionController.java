@@ -0,0 +1,47 @@
+package com.company.platform.web;
+
+import com.company.platform.err.BadRequestException;
+import com.company.platform.err.ForbiddenException;
+import com.company.platform.security.TokenIntrospectionService;
+import com.company.platform.web.dto.IntrospectRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+
+/**
+ * Batch token introspection for the API gateway and sidecars. Callers
+ * authenticate with the shared introspection secret, not a bearer token.
+ */
+@RestController
+@RequestMapping("/auth")
+public class IntrospectionController {
+    private final TokenIntrospectionService introspection;
+    private final byte[] clientSecret;
+    private final int maxBatchSize;
+
+    public IntrospectionController(TokenIntrospectionService introspection,
+            @Value("${security.introspection.clientSecret:}") String clientSecret,
+            @Value("${security.introspection.maxBatchSize:1000}") int maxBatchSize) {
+        this.introspection = introspection;
+        this.clientSecret = clientSecret.getBytes(StandardCharsets.UTF_8);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @PostMapping("/introspect")
+    public Map<String, Object> introspect(@RequestHeader(value = "X-Introspection-Secret", required = false) String secret,
+            @RequestBody IntrospectRequest req) {
+        // Disabled until a secret is configured
+        if (clientSecret.length == 0 || secret == null
+                || !MessageDigest.isEqual(clientSecret, secret.getBytes(StandardCharsets.UTF_8)))
+            throw new ForbiddenException("Invalid introspection credentials");
+        if (req.tokens() == null || req.tokens().isEmpty())
+            throw new BadRequestException("tokens must not be empty");
+        if (req.tokens().size() > maxBatchSize)
+            throw new BadRequestException("At most " + maxBatchSize + " tokens per request");
+
+        return Map.of("results", introspection.introspect(req.tokens()));
+    }
+}
@@ -2,12 +2,18 @@ package com.company.platform.web;
 
 import com.company.platform.err.ForbiddenException;
 import com.company.platform.guard.OrgGuard;
+import com.company.platform.guard.Permission;
 import com.company.platform.security.CurrentUser;
 import com.company.platform.service.InviteService;
 import com.company.platform.web.dto.CreateInviteRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -16,10 +22,12 @@ import java.util.UUID;
 public class InviteController {
     private final InviteService invites;
     private final OrgGuard guard;
+    private final ObjectMapper mapper;
 
-    public InviteController(InviteService invites, OrgGuard guard) {
+    public InviteController(InviteService invites, OrgGuard guard, ObjectMapper mapper) {
         this.invites = invites;
         this.guard = guard;
+        this.mapper = mapper;
     }
 
     @PostMapping
@@ -29,9 +37,9 @@ public class InviteController {
         var cu = (CurrentUser) authentication.getPrincipal();
         if (cu == null || !cu.isUser())
             throw new ForbiddenException("User token required");
-        guard.requireRole(cu.id(), orgId, "OWNER", "ADMIN");
+        long granted = guard.require(cu.id(), orgId, Permission.INVITE_CREATE.bit);
 
-        var response = invites.createInvite(orgId, cu.id(), req.email(), req.roleName());
+        var response = invites.createInvite(orgId, cu.id(), granted, req.email(), req.roleName());
 
         // Return both invitation details and the generated temporary password
         return Map.of(
@@ -39,4 +47,40 @@ public class InviteController {
                 "tempPassword", response.getTempPassword(),
                 "message", "Invitation created successfully. Share the temporary password with the invitee.");
     }
-}
\ No newline at end of file
+
+    /**
+     * Create many invites at once. The body is a JSON array, NDJSON or CSV
+     * (header: email,roleName) of rows and is read as a stream; every row gets
+     * its own result, so duplicates and bad rows don't fail the whole upload.
+     * Only a malformed body or too many rows fail the request, and then before
+     * any invite is created.
+     */
+    @PostMapping(path = "/bulk", consumes = { "application/json", BulkRows.NDJSON, BulkRows.CSV })
+    public Map<String, Object> createInvitesBulk(@PathVariable UUID orgId,
+            HttpServletRequest request,
+            Authentication authentication) throws IOException {
+        var cu = (CurrentUser) authentication.getPrincipal();
+        if (cu == null || !cu.isUser())
+            throw new ForbiddenException("User token required");
+        long granted = guard.require(cu.id(), orgId, Permission.INVITE_CREATE.bit);
+
+        Iterator<CreateInviteRequest> rows = BulkRows.read(request.getInputStream(), request.getContentType(),
+                CreateInviteRequest.class, mapper);
+        var results = invites.createInvitesBulk(orgId, cu.id(), granted, new Iterator<>() {
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            public InviteService.BulkRow next() {
+                var r = rows.next();
+                return new InviteService.BulkRow(r.email(), r.roleName());
+            }
+        });
+
+        var summary = new LinkedHashMap<String, Long>();
+        for (var status : new String[] { InviteService.BulkResult.CREATED, InviteService.BulkResult.DUPLICATE,
+                InviteService.BulkResult.FAILED })
+            summary.put(status.toLowerCase(), results.stream().filter(r -> r.status().equals(status)).count());
+        return Map.of("results", results, "summary", summary);
+    }
+}
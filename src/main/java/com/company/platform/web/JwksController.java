@@ -0,0 +1,41 @@
+package com.company.platform.web;
+
+import com.company.platform.security.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Public verification keys, so other services can validate access tokens
+ * locally instead of calling us
+ */
+@RestController
+public class JwksController {
+    private final JwtKeyRing keyRing;
+    private final long maxAgeSeconds;
+
+    public JwksController(JwtKeyRing keyRing, @Value("${security.jwt.keys.jwksMaxAgeSeconds:300}") long maxAgeSeconds) {
+        this.keyRing = keyRing;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks(WebRequest request) {
+        String json = keyRing.jwksJson();
+        String etag = "\"" + DigestUtils.md5DigestAsHex(json.getBytes(StandardCharsets.UTF_8)) + "\"";
+        if (request.checkNotModified(etag))
+            return null; // 304 already prepared by checkNotModified
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic())
+                .eTag(etag)
+                .contentType(MediaType.parseMediaType("application/jwk-set+json"))
+                .body(json);
+    }
+}
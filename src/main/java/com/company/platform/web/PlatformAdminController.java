@@ -4,20 +4,30 @@ import com.company.platform.domain.Organization;
 import com.company.platform.domain.Invite;
 import com.company.platform.domain.User;
 import com.company.platform.err.ForbiddenException;
+import com.company.platform.guard.Permission;
 import com.company.platform.security.CurrentUser;
-import com.company.platform.security.TokenBlacklistService;
+import com.company.platform.security.LoginThrottle;
 import com.company.platform.service.OrgService;
 import com.company.platform.service.PlatformAuthService;
 import com.company.platform.service.InviteService;
 import com.company.platform.web.dto.CreateOrgRequest;
 import com.company.platform.web.dto.CreateInviteRequest;
 import com.company.platform.web.dto.CreateOrgOwnerRequest;
+import com.company.platform.web.dto.ImportOrgRow;
 import com.company.platform.web.dto.LoginRequest;
+import com.company.platform.web.dto.LogoutRequest;
 import com.company.platform.web.dto.TokenResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.UUID;
 import java.util.Map;
 
@@ -27,31 +37,47 @@ public class PlatformAdminController {
     private final PlatformAuthService auth;
     private final OrgService orgs;
     private final InviteService invites;
-    private final TokenBlacklistService tokenBlacklist;
+    private final LoginThrottle throttle;
+    private final ObjectMapper mapper;
 
     public PlatformAdminController(PlatformAuthService auth, OrgService orgs, InviteService invites,
-            TokenBlacklistService tokenBlacklist) {
+            LoginThrottle throttle, ObjectMapper mapper) {
         this.auth = auth;
         this.orgs = orgs;
         this.invites = invites;
-        this.tokenBlacklist = tokenBlacklist;
+        this.throttle = throttle;
+        this.mapper = mapper;
     }
 
     @PostMapping("/auth/login")
-    public TokenResponse login(@RequestBody LoginRequest req) {
-        return new TokenResponse(auth.login(req.email(), req.password()), false);
+    public TokenResponse login(@RequestBody LoginRequest req, HttpServletRequest request) {
+        var loginResult = throttle.guard(req.email(), request.getRemoteAddr(),
+                () -> auth.login(req.email(), req.password()));
+        return new TokenResponse(loginResult.getToken(), false, loginResult.getRefreshToken());
     }
 
     @PostMapping("/auth/logout")
-    public void logout(HttpServletRequest request) {
+    public void logout(HttpServletRequest request, @RequestBody(required = false) LogoutRequest req,
+            Authentication authentication) {
         String header = request.getHeader("Authorization");
+        String token = null;
         if (header != null && header.startsWith("Bearer ")) {
-            String token = header.substring(7);
-            tokenBlacklist.blacklistToken(token);
+            token = header.substring(7);
         }
+        UUID ownerId = authentication != null && authentication.getPrincipal() instanceof CurrentUser cu
+                && cu.isPlatformOwner() ? cu.id() : null;
+        auth.logout(ownerId, token, req == null ? null : req.refreshToken());
         // Always return success - even if no token provided
     }
 
+    @PostMapping("/auth/logout-all")
+    public void logoutAll(Authentication authentication) {
+        CurrentUser cu = (CurrentUser) authentication.getPrincipal();
+        if (cu == null || !cu.isPlatformOwner())
+            throw new ForbiddenException("Platform owner token required");
+        auth.logoutEverywhere(cu.id());
+    }
+
     @PostMapping("/orgs")
     public Organization createOrg(Authentication authentication, @RequestBody CreateOrgRequest req) {
         CurrentUser cu = (CurrentUser) authentication.getPrincipal();
@@ -63,6 +89,54 @@ public class PlatformAdminController {
         return orgs.createOrgAsOwner(req.name(), req.slug(), fakeOwner); // or create without owner if you prefer
     }
 
+    /**
+     * Create many orgs, each with an owner invite, from an NDJSON, CSV (header:
+     * name,slug,ownerEmail) or JSON array body. Rows are read and results
+     * written as a stream: one NDJSON line per row with the generated temp
+     * credential, then always a final line: {"summary": ...}, or
+     * {"error": ..., "processedRows": n, "summary": ...} if the import broke
+     * off part-way. A stream without one was cut off in transit.
+     */
+    @PostMapping(path = "/orgs/import", consumes = { "application/json", BulkRows.NDJSON, BulkRows.CSV })
+    public void importOrgs(Authentication authentication, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        CurrentUser cu = (CurrentUser) authentication.getPrincipal();
+        if (cu == null || !cu.isPlatformOwner())
+            throw new ForbiddenException("Platform owner token required");
+
+        Iterator<ImportOrgRow> rows = BulkRows.read(request.getInputStream(), request.getContentType(),
+                ImportOrgRow.class, mapper);
+        response.setContentType(BulkRows.NDJSON);
+        OutputStream out = response.getOutputStream();
+        var summary = orgs.importOrgs(cu.id(), new Iterator<>() {
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            public OrgService.ImportRow next() {
+                var r = rows.next();
+                return new OrgService.ImportRow(r.name(), r.slug(), r.ownerEmail());
+            }
+        }, result -> writeLine(out, result));
+        var last = new LinkedHashMap<String, Object>();
+        if (summary.getError() != null) {
+            last.put("error", summary.getError());
+            last.put("processedRows", summary.getProcessedRows());
+        }
+        last.put("summary", summary);
+        writeLine(out, last);
+        out.flush();
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(mapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @PostMapping("/orgs/{orgId}/owner")
     public Map<String, Object> createOrgOwner(@PathVariable UUID orgId,
             @RequestBody CreateOrgOwnerRequest req,
@@ -90,7 +164,8 @@ public class PlatformAdminController {
         if (cu == null || !cu.isPlatformOwner())
             throw new ForbiddenException("Platform owner token required");
 
-        var response = invites.createInvite(orgId, null, req.email(), req.roleName());
+        // platform owners stand above every org role
+        var response = invites.createInvite(orgId, null, Permission.ALL, req.email(), req.roleName());
 
         // Return both invitation details and the generated temporary password
         return Map.of(
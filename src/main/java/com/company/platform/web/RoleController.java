@@ -0,0 +1,65 @@
+package com.company.platform.web;
+
+import com.company.platform.err.ForbiddenException;
+import com.company.platform.guard.OrgGuard;
+import com.company.platform.guard.Permission;
+import com.company.platform.security.CurrentUser;
+import com.company.platform.service.RoleService;
+import com.company.platform.web.dto.RoleRequest;
+import com.company.platform.web.dto.RoleView;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Roles available in an org: the built-ins plus roles the org defines, each
+ * with a set of {@link Permission} names
+ */
+@RestController
+@RequestMapping("/orgs/{orgId}/roles")
+public class RoleController {
+    private final RoleService roles;
+    private final OrgGuard guard;
+
+    public RoleController(RoleService roles, OrgGuard guard) {
+        this.roles = roles;
+        this.guard = guard;
+    }
+
+    @GetMapping
+    public List<RoleView> list(@PathVariable UUID orgId, Authentication authentication) {
+        guard.require(userId(authentication), orgId, Permission.ROLE_READ.bit);
+        return roles.list(orgId).stream().map(RoleView::of).toList();
+    }
+
+    @PostMapping
+    public RoleView create(@PathVariable UUID orgId, @RequestBody RoleRequest req, Authentication authentication) {
+        UUID userId = userId(authentication);
+        long granted = guard.require(userId, orgId, Permission.ROLE_MANAGE.bit);
+        return RoleView.of(roles.create(orgId, userId, granted, req.name(), req.description(), req.permissions()));
+    }
+
+    @PutMapping("/{roleId}")
+    public RoleView update(@PathVariable UUID orgId, @PathVariable UUID roleId, @RequestBody RoleRequest req,
+            Authentication authentication) {
+        UUID userId = userId(authentication);
+        long granted = guard.require(userId, orgId, Permission.ROLE_MANAGE.bit);
+        return RoleView.of(roles.update(orgId, roleId, userId, granted, req.description(), req.permissions()));
+    }
+
+    @DeleteMapping("/{roleId}")
+    public void delete(@PathVariable UUID orgId, @PathVariable UUID roleId, Authentication authentication) {
+        UUID userId = userId(authentication);
+        long granted = guard.require(userId, orgId, Permission.ROLE_MANAGE.bit);
+        roles.delete(orgId, roleId, userId, granted);
+    }
+
+    private static UUID userId(Authentication authentication) {
+        var cu = (CurrentUser) authentication.getPrincipal();
+        if (cu == null || !cu.isUser())
+            throw new ForbiddenException("User token required");
+        return cu.id();
+    }
+}
@@ -0,0 +1,6 @@
+package com.company.platform.web.dto;
+
+import java.util.List;
+
+public record IntrospectRequest(List<String> tokens) {
+}
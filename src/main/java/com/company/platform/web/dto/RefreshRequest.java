@@ -0,0 +1,4 @@
+package com.company.platform.web.dto;
+
+public record RefreshRequest(String refreshToken) {
+}
@@ -0,0 +1,14 @@
+package com.company.platform.web.dto;
+
+import com.company.platform.domain.Role;
+import com.company.platform.guard.Permission;
+
+import java.util.List;
+import java.util.UUID;
+
+public record RoleView(UUID id, String name, String description, boolean builtIn, List<String> permissions) {
+    public static RoleView of(Role r) {
+        return new RoleView(r.getId(), r.getName(), r.getDescription(), r.getOrgId() == null,
+                Permission.names(r.getPermissions()));
+    }
+}
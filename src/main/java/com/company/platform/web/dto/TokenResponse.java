@@ -1,4 +1,20 @@
 package com.company.platform.web.dto;
 
-public record TokenResponse(String accessToken, boolean mustChangePassword) {
-}
\ No newline at end of file
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.UUID;
+
+public record TokenResponse(String accessToken, boolean mustChangePassword, String refreshToken,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<JoinedOrg> joinedOrgs) {
+
+    public TokenResponse(String accessToken, boolean mustChangePassword, String refreshToken) {
+        this(accessToken, mustChangePassword, refreshToken, null);
+    }
+
+    /**
+     * Org joined by accepting pending invites during this login
+     */
+    public record JoinedOrg(UUID orgId, String name, String role) {
+    }
+}
@@ -0,0 +1,61 @@
+-- audit_logs becomes a table range-partitioned by month on created_at, so
+-- retention is DETACH/DROP of a whole month instead of a huge DELETE, and
+-- queries bounded in time only touch the months they cover.
+-- Partitions are named audit_logs_pYYYYMM; AuditPartitionMaintenance keeps
+-- future months created and old ones dropped.
+
+ALTER TABLE audit_logs RENAME TO audit_logs_legacy;
+ALTER INDEX audit_logs_pkey RENAME TO audit_logs_legacy_pkey;
+DROP INDEX idx_audit_org_created;
+DROP INDEX idx_audit_actor_created;
+DROP INDEX idx_audit_created;
+
+CREATE TABLE audit_logs (
+  id             BIGINT NOT NULL DEFAULT nextval('audit_logs_id_seq'),
+  org_id         UUID NULL REFERENCES organizations(id),
+  actor_user_id  UUID NULL REFERENCES users(id),
+  action         TEXT NOT NULL,
+  target_type    TEXT,
+  target_id      TEXT,
+  meta           JSONB,
+  created_at     TIMESTAMPTZ NOT NULL DEFAULT now(),
+  -- the partition key has to be part of the primary key
+  PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_audit_org_created   ON audit_logs(org_id, created_at, id);
+CREATE INDEX idx_audit_actor_created ON audit_logs(actor_user_id, created_at, id);
+CREATE INDEX idx_audit_created       ON audit_logs(created_at, id);
+
+-- Create the partition holding the month of the given date, if missing.
+-- Months are UTC months whatever the session TimeZone (pgjdbc sends the JVM's
+-- zone): bounds are built as explicit UTC instants, so partitions made by
+-- hosts in different zones still tile without gaps or overlaps.
+CREATE FUNCTION audit_logs_ensure_partition(month_of DATE) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+  lo   DATE := make_date(extract(year FROM month_of)::int, extract(month FROM month_of)::int, 1);
+  name TEXT := 'audit_logs_p' || to_char(lo, 'YYYYMM');
+BEGIN
+  IF to_regclass(name) IS NULL THEN
+    EXECUTE format('CREATE TABLE %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+                   name, lo::timestamp AT TIME ZONE 'UTC',
+                   (lo + INTERVAL '1 month')::timestamp AT TIME ZONE 'UTC');
+  END IF;
+  RETURN name;
+END $$;
+
+-- partitions for every month with existing rows, plus the current and next three
+SELECT audit_logs_ensure_partition(m::date)
+FROM generate_series(
+       date_trunc('month', LEAST(COALESCE((SELECT min(created_at) FROM audit_logs_legacy), now()), now())
+                           AT TIME ZONE 'UTC'),
+       date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months',
+       INTERVAL '1 month') AS m;
+
+INSERT INTO audit_logs SELECT id, org_id, actor_user_id, action, target_type, target_id, meta, created_at
+FROM audit_logs_legacy;
+
+ALTER SEQUENCE audit_logs_id_seq OWNED BY NONE;
+DROP TABLE audit_logs_legacy;
+ALTER SEQUENCE audit_logs_id_seq OWNED BY audit_logs.id;
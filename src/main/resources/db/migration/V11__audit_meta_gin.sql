@@ -0,0 +1,5 @@
+-- containment queries on audit metadata (meta @> '{"email": "..."}');
+-- jsonb_path_ops only supports @>, but is smaller and faster than the default
+-- jsonb_ops. Created on the partitioned parent, so every partition (including
+-- ones made later by audit_logs_ensure_partition) gets its own copy.
+CREATE INDEX idx_audit_meta ON audit_logs USING gin (meta jsonb_path_ops);
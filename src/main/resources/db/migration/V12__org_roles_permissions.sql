@@ -0,0 +1,13 @@
+-- org-defined roles: a role belongs to one org, or to none (built-in).
+-- Each role carries its permissions as a bitmask, see guard.Permission.
+ALTER TABLE roles DROP CONSTRAINT roles_only_system;
+ALTER TABLE roles ADD COLUMN permissions BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE roles ADD CONSTRAINT fk_roles_org FOREIGN KEY (org_id) REFERENCES organizations(id) ON DELETE CASCADE;
+-- UNIQUE (org_id, name) doesn't cover org_id NULL
+CREATE UNIQUE INDEX uniq_role_builtin_name ON roles(name) WHERE org_id IS NULL;
+
+-- built-ins keep their behaviour: OWNER holds every bit (including future
+-- ones), ADMIN invites and sees roles, USER has no org permissions
+UPDATE roles SET permissions = -1                 WHERE org_id IS NULL AND name = 'OWNER';
+UPDATE roles SET permissions = (1 << 0) | (1 << 2) WHERE org_id IS NULL AND name = 'ADMIN';
+UPDATE roles SET permissions = 0                  WHERE org_id IS NULL AND name = 'USER';
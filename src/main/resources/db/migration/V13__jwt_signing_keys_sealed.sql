@@ -0,0 +1,8 @@
+-- jwt_signing_keys.private_key is no longer plaintext PKCS#8: it holds the key
+-- sealed with AES-GCM under a key-encryption key kept outside the database
+-- (security.jwt.keys.encryptionKey), with the kid as associated data, so read
+-- access to the table or a backup is not enough to mint tokens.
+-- Existing plaintext rows are sealed in place by the application on its next
+-- key refresh; rotate the keys if older backups may still hold them.
+COMMENT ON COLUMN jwt_signing_keys.private_key IS
+  'AES-GCM sealed PKCS#8: version byte 1, 12-byte IV, ciphertext + tag; AAD = kid';
@@ -0,0 +1,17 @@
+-- Role names are unique per org regardless of case, and an org role can't
+-- shadow a built-in in any case ("owner"), so a case-insensitive lookup by
+-- name finds at most one role.
+
+-- settle what the old case-sensitive constraint let through: the oldest role
+-- keeps its name, later ones get the start of their id appended
+UPDATE roles r SET name = r.name || '-' || left(r.id::text, 8)
+WHERE r.org_id IS NOT NULL
+  AND (EXISTS (SELECT 1 FROM roles b WHERE b.org_id IS NULL AND lower(b.name) = lower(r.name))
+       OR EXISTS (SELECT 1 FROM roles o
+                  WHERE o.org_id = r.org_id AND lower(o.name) = lower(r.name)
+                    AND (o.created_at, o.id) < (r.created_at, r.id)));
+
+ALTER TABLE roles DROP CONSTRAINT uniq_role_name;
+CREATE UNIQUE INDEX uniq_role_org_name ON roles(org_id, lower(name)) WHERE org_id IS NOT NULL;
+DROP INDEX uniq_role_builtin_name;
+CREATE UNIQUE INDEX uniq_role_builtin_name ON roles(lower(name)) WHERE org_id IS NULL;
@@ -0,0 +1,11 @@
+-- cluster-wide access token revocations (logout); each node keeps an in-memory replica
+CREATE TABLE token_revocations (
+  id          BIGSERIAL PRIMARY KEY,
+  digest      BYTEA NOT NULL,
+  expires_at  TIMESTAMPTZ NOT NULL,
+  revoked_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+  CONSTRAINT uniq_token_revocation_digest UNIQUE (digest)
+);
+
+CREATE INDEX idx_token_revocations_revoked ON token_revocations(revoked_at, id);
+CREATE INDEX idx_token_revocations_expires ON token_revocations(expires_at);
@@ -0,0 +1,3 @@
+-- per-subject token epoch: access tokens carrying an older epoch are rejected
+ALTER TABLE users           ADD COLUMN token_epoch BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE platform_owners ADD COLUMN token_epoch BIGINT NOT NULL DEFAULT 0;
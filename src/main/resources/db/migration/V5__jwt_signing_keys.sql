@@ -0,0 +1,12 @@
+-- asymmetric JWT signing keys (ES256 / EdDSA), rotated on a schedule and published via JWKS
+CREATE TABLE jwt_signing_keys (
+  kid           TEXT PRIMARY KEY,
+  alg           TEXT NOT NULL,
+  private_key   BYTEA NOT NULL,        -- PKCS#8
+  public_key    BYTEA NOT NULL,        -- X.509 SubjectPublicKeyInfo
+  created_at    TIMESTAMPTZ NOT NULL DEFAULT now(),
+  activates_at  TIMESTAMPTZ NOT NULL,  -- starts signing; published in JWKS before that
+  expires_at    TIMESTAMPTZ            -- dropped from JWKS; set once a successor is created
+);
+
+CREATE INDEX idx_jwt_signing_keys_activates ON jwt_signing_keys(alg, activates_at);
@@ -0,0 +1,18 @@
+-- opaque refresh tokens, stored only as SHA-256 digests; rotated on every use
+CREATE TABLE refresh_tokens (
+  id           UUID PRIMARY KEY,
+  token_hash   BYTEA NOT NULL,
+  family_id    UUID NOT NULL,          -- all tokens descending from one login
+  subject_id   UUID NOT NULL,
+  sub_type     TEXT NOT NULL,          -- USER / PLATFORM
+  email        CITEXT NOT NULL,
+  token_epoch  BIGINT NOT NULL,
+  expires_at   TIMESTAMPTZ NOT NULL,
+  created_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+  revoked_at   TIMESTAMPTZ,
+  replaced_by  UUID,
+  CONSTRAINT uniq_refresh_token_hash UNIQUE (token_hash)
+);
+
+CREATE INDEX idx_refresh_tokens_family  ON refresh_tokens(family_id);
+CREATE INDEX idx_refresh_tokens_expires ON refresh_tokens(expires_at);
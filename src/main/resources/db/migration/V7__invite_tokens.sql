@@ -0,0 +1,8 @@
+-- invite-token mode: a 256-bit random token per invite, stored only as its SHA-256 digest.
+-- Temp passwords remain for invites issued in password mode.
+ALTER TABLE invites ALTER COLUMN temp_password_hash DROP NOT NULL;
+ALTER TABLE invites ADD COLUMN token_hash BYTEA;
+ALTER TABLE invites ADD CONSTRAINT invites_has_secret
+  CHECK (token_hash IS NOT NULL OR temp_password_hash IS NOT NULL);
+
+CREATE UNIQUE INDEX uniq_invites_token_hash ON invites(token_hash);
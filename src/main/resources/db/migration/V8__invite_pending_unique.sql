@@ -0,0 +1,19 @@
+-- At most one PENDING invite per (org, email), enforced by the database so
+-- invite creation can be a single INSERT ... ON CONFLICT.
+
+-- settle what the old check-then-insert let through: expired invites first,
+-- then all but the newest pending invite per (org, email)
+UPDATE invites SET status = 'EXPIRED'
+WHERE status = 'PENDING' AND expires_at < now();
+
+UPDATE invites i SET status = 'EXPIRED'
+WHERE i.status = 'PENDING'
+  AND EXISTS (SELECT 1 FROM invites n
+              WHERE n.org_id = i.org_id AND n.email = i.email AND n.status = 'PENDING'
+                AND (n.expires_at, n.id) > (i.expires_at, i.id));
+
+CREATE UNIQUE INDEX uniq_invites_pending_org_email ON invites(org_id, email) WHERE status = 'PENDING';
+
+-- only pending invites are ever looked up by expiry (the sweeper)
+DROP INDEX idx_invites_expires;
+CREATE INDEX idx_invites_pending_expires ON invites(expires_at) WHERE status = 'PENDING';
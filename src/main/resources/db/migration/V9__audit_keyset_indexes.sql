@@ -0,0 +1,8 @@
+-- keyset pagination over audit_logs orders by (created_at, id); carry id in
+-- the indexes so a page is a single index range scan with no sort
+DROP INDEX idx_audit_org_created;
+DROP INDEX idx_audit_actor_created;
+CREATE INDEX idx_audit_org_created   ON audit_logs(org_id, created_at, id);
+CREATE INDEX idx_audit_actor_created ON audit_logs(actor_user_id, created_at, id);
+-- platform-wide listing and export
+CREATE INDEX idx_audit_created       ON audit_logs(created_at, id);
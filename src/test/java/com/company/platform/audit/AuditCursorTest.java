@@ -0,0 +1,35 @@
+package com.company.platform.audit;
+
+import com.company.platform.err.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditCursorTest {
+
+    @Test
+    void roundTripsNanosecondsAndIds() {
+        for (var c : new AuditCursor[] {
+                new AuditCursor(Instant.parse("2026-10-18T10:15:30.123456789Z"), 42),
+                new AuditCursor(Instant.EPOCH, 0),
+                new AuditCursor(Instant.parse("1969-12-31T23:59:59.5Z"), Long.MAX_VALUE) }) {
+            String encoded = c.encode();
+            assertTrue(encoded.matches("[A-Za-z0-9_-]+"), "url-safe without padding");
+            assertEquals(c, AuditCursor.decode(encoded));
+        }
+    }
+
+    @Test
+    void pointsAtTheLastRecord() {
+        var last = new AuditRecord(7, null, null, "LOGIN", null, null, null, Instant.parse("2026-01-01T00:00:00Z"));
+        assertEquals(new AuditCursor(last.createdAt(), 7), AuditCursor.after(last));
+    }
+
+    @Test
+    void rejectsGarbage() {
+        for (String bad : new String[] { "", "!!!", "bm9wZQ", "MTIzOjQ1" })
+            assertThrows(BadRequestException.class, () -> AuditCursor.decode(bad), bad);
+    }
+}
@@ -0,0 +1,74 @@
+package com.company.platform.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Monthly audit partitions against the configured database: bounds are UTC
+ * months whichever TimeZone the creating session runs in.
+ */
+@SpringBootTest
+class AuditPartitionTest {
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP TABLE IF EXISTS audit_logs_p209901");
+        jdbc.execute("DROP TABLE IF EXISTS audit_logs_p209902");
+    }
+
+    @Test
+    void boundsAreUtcMonthsInAnySessionZone() {
+        jdbc.execute((ConnectionCallback<Void>) c -> {
+            try {
+                ensure(c, "Asia/Tokyo", "2099-01-20");
+                ensure(c, "America/Los_Angeles", "2099-02-01");
+                assertEquals("FOR VALUES FROM ('2099-01-01 00:00:00+00') TO ('2099-02-01 00:00:00+00')",
+                        bounds("audit_logs_p209901"));
+                assertEquals("FOR VALUES FROM ('2099-02-01 00:00:00+00') TO ('2099-03-01 00:00:00+00')",
+                        bounds("audit_logs_p209902"));
+            } finally {
+                exec(c, "RESET TimeZone");
+            }
+            return null;
+        });
+    }
+
+    private String bounds(String partition) {
+        return jdbc.execute((ConnectionCallback<String>) c -> {
+            exec(c, "SET TimeZone = 'UTC'");
+            try (var ps = c.prepareStatement("SELECT pg_get_expr(relpartbound, oid) FROM pg_class WHERE relname = ?")) {
+                ps.setString(1, partition);
+                try (var rs = ps.executeQuery()) {
+                    assertTrue(rs.next(), partition);
+                    return rs.getString(1);
+                }
+            } finally {
+                exec(c, "RESET TimeZone");
+            }
+        });
+    }
+
+    private static void ensure(Connection c, String zone, String day) throws SQLException {
+        exec(c, "SET TimeZone = '" + zone + "'");
+        exec(c, "SELECT audit_logs_ensure_partition(DATE '" + day + "')");
+    }
+
+    private static void exec(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.platform.audit;
+
+import com.company.platform.repo.AuditLogBatchRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AuditPipelineTest {
+
+    private static final List<String> VOLATILE = List.of("/volatile", "/dev/shm", " ");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void journalDirMustBeSetAndDurable() {
+        assertThrows(IllegalStateException.class, () -> AuditPipeline.durableJournalDir("", VOLATILE));
+        assertThrows(IllegalStateException.class, () -> AuditPipeline.durableJournalDir(null, VOLATILE));
+        assertThrows(IllegalStateException.class,
+                () -> AuditPipeline.durableJournalDir("/volatile/journal", VOLATILE));
+        assertThrows(IllegalStateException.class, () -> AuditPipeline.durableJournalDir("/dev/shm/journal", VOLATILE));
+        assertThrows(IllegalStateException.class,
+                () -> AuditPipeline.durableJournalDir("/var/lib/../../volatile/j", VOLATILE));
+
+        assertEquals(Path.of("/var/lib/platform/audit-journal"),
+                AuditPipeline.durableJournalDir("/var/lib/platform/audit-journal", VOLATILE));
+        assertEquals(Path.of("/volatile-not/journal"),
+                AuditPipeline.durableJournalDir("/volatile-not/journal", VOLATILE));
+        assertTrue(AuditPipeline.durableJournalDir("target/audit-journal", VOLATILE).isAbsolute());
+    }
+
+    @Test
+    void outageDuringRowByRowReplayWritesNoRowTwice() throws Exception {
+        var repo = mock(AuditLogBatchRepo.class);
+        var inserted = new CopyOnWriteArrayList<String>();
+        var outage = new AtomicBoolean(true);
+        when(repo.insertAll(anyList())).thenAnswer(inv -> {
+            List<AuditEvent> events = inv.getArgument(0);
+            if (events.size() > 1)
+                throw new DataIntegrityViolationException("one bad row"); // forces row by row
+            String id = events.get(0).targetId();
+            if (id.equals("2") && outage.getAndSet(false))
+                throw new TransientDataAccessResourceException("connection lost");
+            inserted.add(id);
+            return 1;
+        });
+        var pipeline = new AuditPipeline(repo, new ObjectMapper(), new SimpleMeterRegistry(), 64, 10, 5,
+                AuditPipeline.OverflowPolicy.BLOCK, 50, dir.resolve("spill").toString(), 1000, 5,
+                true, dir.resolve("journal").toString(), List.of(), 1, 4, 10);
+        for (int i = 0; i < 5; i++)
+            pipeline.publish(new AuditEvent(null, null, "LOGIN", "USER", Integer.toString(i), null, Instant.EPOCH));
+
+        pipeline.start();
+        try {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (inserted.size() < 5 && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+        } finally {
+            pipeline.stop();
+        }
+        assertEquals(List.of("0", "1", "2", "3", "4"), inserted);
+    }
+}
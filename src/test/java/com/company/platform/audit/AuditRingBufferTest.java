@@ -0,0 +1,66 @@
+package com.company.platform.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRingBufferTest {
+
+    @Test
+    void rejectsWhenFullAndReusesSlotsAfterDrain() {
+        var buffer = new AuditRingBuffer<Integer>(4);
+        for (int i = 0; i < 4; i++)
+            assertTrue(buffer.offer(i));
+        assertFalse(buffer.offer(99));
+        assertEquals(4, buffer.size());
+
+        var out = new ArrayList<Integer>();
+        assertEquals(2, buffer.drainTo(out, 2));
+        assertTrue(buffer.offer(4));
+        assertTrue(buffer.offer(5));
+        buffer.drainTo(out, 10);
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), out);
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void deliversEveryElementOnceUnderConcurrentProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        var buffer = new AuditRingBuffer<Integer>(1024);
+        var start = new CountDownLatch(1);
+        var done = new AtomicInteger();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++)
+                    while (!buffer.offer(base + i))
+                        Thread.onSpinWait();
+                done.incrementAndGet();
+            }).start();
+        }
+        start.countDown();
+
+        var seen = new HashSet<Integer>();
+        Integer e;
+        while (done.get() < producers || buffer.size() > 0) {
+            while ((e = buffer.poll()) != null)
+                assertTrue(seen.add(e), "duplicate " + e);
+        }
+        while ((e = buffer.poll()) != null)
+            assertTrue(seen.add(e));
+        assertEquals(producers * perProducer, seen.size());
+    }
+}
@@ -0,0 +1,45 @@
+package com.company.platform.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditSpillTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void partialReplayKeepsOnlyTheUnwrittenEvents() throws Exception {
+        var spill = new AuditSpill(dir, new ObjectMapper().registerModule(new JavaTimeModule()));
+        for (int i = 0; i < 7; i++)
+            spill.append(new AuditEvent(null, null, "LOGIN", "USER", Integer.toString(i), null, Instant.EPOCH));
+        spill.seal();
+        Path file = spill.sealedFiles().get(0);
+
+        var written = new ArrayList<String>();
+        // the database goes away after the fourth event (second batch, second row)
+        assertFalse(spill.replay(file, 3, batch -> {
+            int n = written.size() == 3 ? 1 : batch.size();
+            batch.subList(0, n).forEach(e -> written.add(e.targetId()));
+            return n;
+        }));
+        assertTrue(Files.exists(file));
+
+        assertTrue(spill.replay(file, 3, batch -> {
+            batch.forEach(e -> written.add(e.targetId()));
+            return batch.size();
+        }));
+        assertEquals(List.of("0", "1", "2", "3", "4", "5", "6"), written);
+        assertEquals(List.of(), spill.sealedFiles());
+    }
+}
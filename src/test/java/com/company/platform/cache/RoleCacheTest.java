@@ -0,0 +1,93 @@
+package com.company.platform.cache;
+
+import com.company.platform.domain.Organization;
+import com.company.platform.err.ForbiddenException;
+import com.company.platform.guard.Permission;
+import com.company.platform.repo.OrganizationRepo;
+import com.company.platform.repo.RoleRepo;
+import com.company.platform.service.InviteService;
+import com.company.platform.service.RoleService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Role caching against the configured database: edits must reach grant checks
+ * at once, whether made here or (simulated with plain JDBC) on another node.
+ */
+@SpringBootTest
+class RoleCacheTest {
+
+    @Autowired
+    RoleService roleService;
+    @Autowired
+    InviteService inviteService;
+    @Autowired
+    RoleRepo roles;
+    @Autowired
+    OrganizationRepo orgs;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    EntityManagerFactory emf;
+
+    private UUID orgId;
+    private UUID roleId;
+
+    @BeforeEach
+    void setUp() {
+        var org = new Organization();
+        org.setName("role-cache-" + UUID.randomUUID());
+        orgId = orgs.save(org).getId();
+        roleId = roleService.create(orgId, null, Permission.ALL, "Support", null, List.of("INVITE_CREATE")).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("DELETE FROM invites WHERE org_id = ?", orgId);
+        jdbc.update("DELETE FROM roles WHERE org_id = ?", orgId);
+        // the org itself stays: its audit trail, written asynchronously, references it
+    }
+
+    @Test
+    void grantChecksSeeAnEditFromAnotherNode() {
+        assertEquals(Permission.INVITE_CREATE.bit, roles.findAssignable(orgId, "Support").orElseThrow().getPermissions());
+
+        // another node widens the role; nothing here is invalidated
+        jdbc.update("UPDATE roles SET permissions = ? WHERE id = ?",
+                Permission.INVITE_CREATE.bit | Permission.ROLE_MANAGE.bit, roleId);
+
+        assertEquals(Permission.INVITE_CREATE.bit | Permission.ROLE_MANAGE.bit,
+                roles.findAssignable(orgId, "Support").orElseThrow().getPermissions());
+        assertThrows(ForbiddenException.class, () -> inviteService.createInvite(orgId, null,
+                Permission.INVITE_CREATE.bit, "x-" + UUID.randomUUID() + "@example.com", "Support"));
+    }
+
+    @Test
+    void roleUpdateInvalidatesCachedQueries() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        roles.findByNameAndOrgIdIsNull("USER");
+        long hits = stats.getQueryCacheHitCount();
+        roles.findByNameAndOrgIdIsNull("USER");
+        assertEquals(hits + 1, stats.getQueryCacheHitCount(), "built-in lookup is served from the query cache");
+
+        roleService.update(orgId, roleId, null, Permission.ALL, "wider", List.of("INVITE_CREATE", "AUDIT_READ"));
+
+        long misses = stats.getQueryCacheMissCount();
+        roles.findByNameAndOrgIdIsNull("USER");
+        assertEquals(misses + 1, stats.getQueryCacheMissCount(), "a write to roles invalidates cached results");
+        assertEquals(Permission.INVITE_CREATE.bit | Permission.AUDIT_READ.bit,
+                roles.findAssignable(orgId, "Support").orElseThrow().getPermissions());
+    }
+}
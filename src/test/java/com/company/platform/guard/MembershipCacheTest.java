@@ -0,0 +1,55 @@
+package com.company.platform.guard;
+
+import com.company.platform.err.ForbiddenException;
+import com.company.platform.repo.OrgMembershipRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MembershipCacheTest {
+
+    private final UUID org = UUID.randomUUID();
+    private final UUID member = UUID.randomUUID();
+    private final UUID stranger = UUID.randomUUID();
+    private final OrgMembershipRepo repo = mock(OrgMembershipRepo.class);
+    private final MembershipCache cache = new MembershipCache(repo, 60, 100, new SimpleMeterRegistry());
+    private final OrgGuard guard = new OrgGuard(cache);
+
+    @Test
+    void repeatChecksSkipTheDatabase() {
+        when(repo.findPermissions(org, member)).thenReturn(Optional.of(Permission.AUDIT_READ.bit));
+        when(repo.findPermissions(org, stranger)).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Permission.AUDIT_READ.bit, guard.require(member, org, Permission.AUDIT_READ.bit));
+            assertThrows(ForbiddenException.class, () -> guard.require(stranger, org, 0));
+        }
+        verify(repo, times(1)).findPermissions(org, member);
+        verify(repo, times(1)).findPermissions(org, stranger);
+        assertEquals(4, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void invalidationReloads() {
+        when(repo.findPermissions(org, stranger)).thenReturn(Optional.empty());
+        assertTrue(cache.permissions(org, stranger).isEmpty());
+
+        // the stranger joins
+        when(repo.findPermissions(org, stranger)).thenReturn(Optional.of(0L));
+        cache.invalidate(org, stranger);
+        assertEquals(0L, cache.permissions(org, stranger).getAsLong());
+
+        // their role gains a permission
+        when(repo.findPermissions(org, stranger)).thenReturn(Optional.of(Permission.ROLE_READ.bit));
+        cache.invalidateOrg(UUID.randomUUID());
+        assertEquals(0L, cache.permissions(org, stranger).getAsLong(), "other orgs are left alone");
+        cache.invalidateOrg(org);
+        assertEquals(Permission.ROLE_READ.bit, cache.permissions(org, stranger).getAsLong());
+    }
+}
@@ -0,0 +1,38 @@
+package com.company.platform.guard;
+
+import com.company.platform.err.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionTest {
+
+    @Test
+    void compilesNamesToMaskAndBack() {
+        long mask = Permission.mask(List.of("AUDIT_READ", "ROLE_MANAGE"));
+        assertEquals(Permission.AUDIT_READ.bit | Permission.ROLE_MANAGE.bit, mask);
+        assertEquals(List.of("AUDIT_READ", "ROLE_MANAGE"), Permission.names(mask));
+        assertEquals(0, Permission.mask(List.of()));
+        assertThrows(BadRequestException.class, () -> Permission.mask(List.of("NOPE")));
+    }
+
+    @Test
+    void bitsAreStable() {
+        // stored in roles.permissions; changing these breaks existing roles
+        assertEquals(1L, Permission.INVITE_CREATE.bit);
+        assertEquals(2L, Permission.AUDIT_READ.bit);
+        assertEquals(4L, Permission.ROLE_READ.bit);
+        assertEquals(8L, Permission.ROLE_MANAGE.bit);
+    }
+
+    @Test
+    void grantsOnlyHeldPermissions() {
+        long admin = Permission.INVITE_CREATE.bit | Permission.ROLE_READ.bit;
+        assertTrue(Permission.canGrant(admin, Permission.INVITE_CREATE.bit));
+        assertTrue(Permission.canGrant(admin, 0));
+        assertFalse(Permission.canGrant(admin, admin | Permission.AUDIT_READ.bit));
+        assertTrue(Permission.canGrant(Permission.ALL, Permission.mask(List.of("AUDIT_READ", "ROLE_MANAGE"))));
+    }
+}
@@ -0,0 +1,62 @@
+package com.company.platform.repo;
+
+import com.company.platform.audit.AuditCursor;
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PGobject;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogQueryRepoTest {
+
+    private static final String BASE = "SELECT id, org_id, actor_user_id, action, target_type, target_id, "
+            + "meta::text AS meta, created_at FROM audit_logs WHERE true";
+    private static final String ORDER = " ORDER BY created_at DESC, id DESC";
+
+    @Test
+    void noFilterScansInKeysetOrder() {
+        var args = new ArrayList<>();
+        var sql = AuditLogQueryRepo.select(new AuditLogQueryRepo.Filter(null, null, null, null, null, null), null,
+                args);
+        assertEquals(BASE + ORDER, sql.toString());
+        assertTrue(args.isEmpty());
+    }
+
+    @Test
+    void everyFilterBindsItsOwnParameter() {
+        var org = UUID.randomUUID();
+        var actor = UUID.randomUUID();
+        var from = Instant.parse("2026-10-01T00:00:00Z");
+        var to = Instant.parse("2026-11-01T00:00:00Z");
+        var after = new AuditCursor(Instant.parse("2026-10-18T10:15:30.5Z"), 99);
+        var args = new ArrayList<>();
+
+        var sql = AuditLogQueryRepo.select(
+                new AuditLogQueryRepo.Filter(org, actor, "LOGIN", from, to, "{\"role\":\"ADMIN\"}"), after, args);
+
+        assertEquals(BASE + " AND org_id = ? AND actor_user_id = ? AND action = ? AND meta @> ?"
+                + " AND created_at >= ? AND created_at < ? AND (created_at, id) < (?, ?)" + ORDER, sql.toString());
+        assertEquals(8, args.size());
+        assertEquals(List.of(org, actor, "LOGIN"), args.subList(0, 3));
+        var meta = (PGobject) args.get(3);
+        assertEquals("jsonb", meta.getType());
+        assertEquals("{\"role\":\"ADMIN\"}", meta.getValue());
+        assertEquals(List.of(Timestamp.from(from), Timestamp.from(to), Timestamp.from(after.createdAt()), 99L),
+                args.subList(4, 8));
+    }
+
+    @Test
+    void userInputNeverReachesTheSqlText() {
+        var args = new ArrayList<>();
+        var sql = AuditLogQueryRepo.select(
+                new AuditLogQueryRepo.Filter(null, null, "X'; DROP TABLE audit_logs; --", null, null, null), null,
+                args);
+        assertFalse(sql.toString().contains("DROP"));
+        assertEquals(List.of("X'; DROP TABLE audit_logs; --"), args);
+    }
+}
@@ -0,0 +1,74 @@
+package com.company.platform.repo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plans and timings of meta containment queries over a generated audit_logs
+ * dataset, with and without the GIN index. Needs the configured database; the
+ * rows are inserted in the test transaction and rolled back. Not part of the
+ * regular suite; run with
+ * {@code mvn test -Dtest=AuditMetaQueryBenchmark [-Daudit.bench.rows=5000000]}.
+ */
+@SpringBootTest
+@Transactional
+class AuditMetaQueryBenchmark {
+
+    private static final int ROWS = Integer.getInteger("audit.bench.rows", 1_000_000);
+    private static final int EMAILS = ROWS / 10;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Test
+    void containmentUsesGinIndex() {
+        long t0 = System.nanoTime();
+        jdbc.update("""
+                INSERT INTO audit_logs (action, target_type, target_id, meta, created_at)
+                SELECT (ARRAY['INVITE_CREATE','INVITE_ACCEPT','LOGIN','PASSWORD_CHANGE'])[1 + g % 4],
+                       'INVITE', g::text,
+                       jsonb_build_object('email', 'user' || (g % ?) || '@bench.local',
+                                          'role', (ARRAY['OWNER','ADMIN','MEMBER','VIEWER'])[1 + (g / 7) % 4]),
+                       date_trunc('month', now()) + (now() - date_trunc('month', now())) * random()
+                FROM generate_series(1, ?) g
+                """, EMAILS, ROWS);
+        jdbc.execute("ANALYZE audit_logs");
+        System.out.printf("generated %,d rows in %,d ms%n", ROWS, (System.nanoTime() - t0) / 1_000_000);
+
+        var byEmail = filter(null, "{\"email\":\"user42@bench.local\"}");
+        var createdForEmail = filter("INVITE_CREATE", "{\"email\":\"user42@bench.local\"}");
+        var byRole = filter(null, "{\"role\":\"VIEWER\"}");
+
+        String plan = explain("email", byEmail);
+        assertTrue(plan.contains("meta_idx"), "containment on a rare value should use the GIN index");
+        explain("action + email", createdForEmail);
+        explain("role (common value)", byRole);
+
+        jdbc.execute("SET LOCAL enable_bitmapscan = off");
+        explain("email, GIN index disabled", byEmail);
+    }
+
+    private static AuditLogQueryRepo.Filter filter(String action, String meta) {
+        return new AuditLogQueryRepo.Filter(null, null, action, null, null, meta);
+    }
+
+    /**
+     * EXPLAIN ANALYZE the first page (50 rows) of the audit query API for the filter
+     */
+    private String explain(String label, AuditLogQueryRepo.Filter filter) {
+        List<Object> args = new ArrayList<>();
+        var sql = AuditLogQueryRepo.select(filter, null, args).append(" LIMIT 51");
+        String plan = String.join("\n",
+                jdbc.queryForList("EXPLAIN (ANALYZE, BUFFERS) " + sql, String.class, args.toArray()));
+        System.out.printf("--- %s%n%s%n", label, plan);
+        return plan;
+    }
+}
@@ -0,0 +1,65 @@
+package com.company.platform.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitFilterTest {
+
+    private static AdaptiveConcurrencyLimitFilter filter(int limit) {
+        return new AdaptiveConcurrencyLimitFilter(true, limit, limit, limit, 100, 0.2, 1.5, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shedsHashingRequestsBeforeCheapReads() throws Exception {
+        var f = filter(4);
+        var release = new CountDownLatch(1);
+        var entered = new CountDownLatch(2);
+        FilterChain blocking = (rq, rs) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        // occupy half the limit, which is the whole share of the HASHING class
+        for (int i = 0; i < 2; i++)
+            new Thread(() -> {
+                try {
+                    f.doFilter(new MockHttpServletRequest("GET", "/orgs/x"), new MockHttpServletResponse(), blocking);
+                } catch (Exception ignored) {
+                }
+            }).start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        var login = new MockHttpServletResponse();
+        f.doFilter(new MockHttpServletRequest("POST", "/auth/login"), login, (rq, rs) -> {
+        });
+        assertEquals(503, login.getStatus());
+        assertEquals("1", login.getHeader("Retry-After"));
+
+        var me = new MockHttpServletResponse();
+        f.doFilter(new MockHttpServletRequest("GET", "/me/profile"), me, (rq, rs) -> {
+        });
+        assertEquals(200, me.getStatus());
+
+        release.countDown();
+    }
+
+    @Test
+    void streamingResponsesBypassTheLimit() {
+        var f = filter(1);
+        assertTrue(f.shouldNotFilter(new MockHttpServletRequest("GET", "/orgs/x/audit/export")));
+        assertTrue(f.shouldNotFilter(new MockHttpServletRequest("GET", "/platform/audit/export")));
+        assertTrue(f.shouldNotFilter(new MockHttpServletRequest("POST", "/platform/orgs/import")));
+        assertFalse(f.shouldNotFilter(new MockHttpServletRequest("GET", "/orgs/x/audit")));
+    }
+}
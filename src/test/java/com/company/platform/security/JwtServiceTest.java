@@ -0,0 +1,92 @@
+package com.company.platform.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+
+    @Test
+    void hmacTokensAreRejectedInAsymmetricModeOutsideTheWindow() {
+        String token = service(hmacRing(), null).generateAccessTokenForUser(userId, "a@b.c", 0);
+
+        assertThrows(UnsupportedJwtException.class, () -> service(es256Ring(), null).authenticate(token));
+        assertThrows(UnsupportedJwtException.class,
+                () -> service(es256Ring(), Instant.now().minusSeconds(1).toString()).authenticate(token));
+        assertEquals(userId,
+                service(es256Ring(), Instant.now().plusSeconds(600).toString()).authenticate(token).id());
+    }
+
+    @Test
+    void asymmetricTokensStayValidAfterSwitchingBackToHmac() {
+        var signing = es256Ring();
+        String token = service(signing, null).generateAccessTokenForUser(userId, "a@b.c", 0);
+
+        var verifying = hmacRing();
+        var publicKey = signing.verificationKey("k1");
+        when(verifying.verificationKey("k1")).thenReturn(publicKey);
+        assertEquals(userId, service(verifying, null).authenticate(token).id());
+    }
+
+    @Test
+    void cachedHmacTokenStopsAuthenticatingAtTheDeadline() throws InterruptedException {
+        String token = service(hmacRing(), null).generateAccessTokenForUser(userId, "a@b.c", 0);
+        Instant deadline = Instant.now().plusMillis(500);
+        var jwt = service(es256Ring(), deadline.toString());
+
+        assertEquals(userId, jwt.authenticate(token).id());
+        assertEquals(1, cache.size(), "verified once, then served from the cache");
+        Thread.sleep(Math.max(0, deadline.toEpochMilli() - System.currentTimeMillis()) + 50);
+
+        assertThrows(UnsupportedJwtException.class, () -> jwt.authenticate(token));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void cachedTokenOfARetiredRingKeyStopsAuthenticating() {
+        var ring = es256Ring();
+        var jwt = service(ring, null);
+        String token = jwt.generateAccessTokenForUser(userId, "a@b.c", 0);
+        assertEquals(userId, jwt.authenticate(token).id());
+
+        when(ring.verificationKey("k1")).thenReturn(null); // retired and unpublished
+        assertThrows(JwtException.class, () -> jwt.authenticate(token));
+    }
+
+    private static JwtKeyRing hmacRing() {
+        var ring = mock(JwtKeyRing.class);
+        when(ring.isAsymmetric()).thenReturn(false);
+        return ring;
+    }
+
+    private static JwtKeyRing es256Ring() {
+        var pair = Jwts.SIG.ES256.keyPair().build();
+        var ring = mock(JwtKeyRing.class);
+        when(ring.isAsymmetric()).thenReturn(true);
+        when(ring.activeKey()).thenReturn(new JwtKeyRing.ActiveKey("k1", pair.getPrivate(), Jwts.SIG.ES256));
+        when(ring.verificationKey("k1")).thenReturn(pair.getPublic());
+        return ring;
+    }
+
+    private JwtService service(JwtKeyRing ring, String hmacAcceptUntil) {
+        var jwt = new JwtService(cache, ring);
+        ReflectionTestUtils.setField(jwt, "secret", "test-secret-that-is-at-least-32-characters-long");
+        ReflectionTestUtils.setField(jwt, "issuer", "test");
+        ReflectionTestUtils.setField(jwt, "accessTtlMin", 15L);
+        ReflectionTestUtils.setField(jwt, "hmacAcceptUntil", hmacAcceptUntil);
+        jwt.init();
+        return jwt;
+    }
+}
@@ -0,0 +1,50 @@
+package com.company.platform.security;
+
+import com.company.platform.err.BadRequestException;
+import com.company.platform.err.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private LoginThrottle throttle(int perEmail, int perIp) {
+        return new LoginThrottle(60, perEmail, perIp, 3, 60, 900, 1000, new SimpleMeterRegistry());
+    }
+
+    private static String fail() {
+        throw new BadRequestException("Invalid credentials");
+    }
+
+    @Test
+    void rejectsBeforeCallingLoginOnceEmailBudgetIsSpent() {
+        var t = throttle(2, 100);
+        t.guard("A@x.io", "1.1.1.1", () -> "ok");
+        t.guard(" a@x.io ", "2.2.2.2", () -> "ok");
+
+        var e = assertThrows(TooManyRequestsException.class,
+                () -> t.guard("a@x.io", "3.3.3.3", () -> fail()));
+        assertTrue(e.getRetryAfterSeconds() > 0);
+    }
+
+    @Test
+    void backsOffAfterConsecutiveFailures() {
+        var t = throttle(100, 100);
+        for (int i = 0; i < 3; i++)
+            assertThrows(BadRequestException.class, () -> t.guard("a@x.io", "1.1.1.1", LoginThrottleTest::fail));
+
+        assertThrows(TooManyRequestsException.class, () -> t.guard("a@x.io", "1.1.1.1", () -> "ok"));
+        // other accounts from the same address are unaffected
+        assertEquals("ok", t.guard("b@x.io", "1.1.1.1", () -> "ok"));
+    }
+
+    @Test
+    void limitsAttemptsPerAddress() {
+        var t = throttle(100, 3);
+        for (int i = 0; i < 3; i++)
+            t.guard("user" + i + "@x.io", "9.9.9.9", () -> "ok");
+
+        assertThrows(TooManyRequestsException.class, () -> t.guard("other@x.io", "9.9.9.9", () -> "ok"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.company.platform.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordConfigTest {
+
+    private final List<Integer> tried = new ArrayList<>();
+
+    /**
+     * matches() takes 5 ms up to cost 12 and 300 ms from 13 on
+     */
+    private IntFunction<PasswordEncoder> stepAt13() {
+        return cost -> {
+            tried.add(cost);
+            return new PasswordEncoder() {
+                public String encode(CharSequence raw) {
+                    return "h";
+                }
+
+                public boolean matches(CharSequence raw, String hash) {
+                    try {
+                        Thread.sleep(cost < 13 ? 5 : 300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return true;
+                }
+            };
+        };
+    }
+
+    @Test
+    void picksTheLargestCostWithinTargetAndStopsStepping() {
+        assertEquals(12, PasswordConfig.calibrate(stepAt13(), 10, 16, 150));
+        assertEquals(List.of(10, 11, 12, 13), tried);
+    }
+
+    @Test
+    void staysWithinBounds() {
+        assertEquals(14, PasswordConfig.calibrate(stepAt13(), 10, 14, 1_000), "never above max");
+        assertEquals(13, PasswordConfig.calibrate(stepAt13(), 13, 16, 50), "never below min, even if too slow");
+    }
+
+    @Test
+    void scryptCostFollowsTheMemoryCap() {
+        // 128 * N * 8 bytes: N = 2^16 is exactly 64 MiB
+        assertEquals(16, PasswordConfig.scryptMaxCost(64));
+        assertEquals(16, PasswordConfig.scryptMaxCost(127));
+        assertEquals(17, PasswordConfig.scryptMaxCost(128));
+        assertEquals(10, PasswordConfig.scryptMaxCost(1));
+        assertEquals(0, PasswordConfig.scryptMaxCost(0));
+    }
+}
@@ -0,0 +1,41 @@
+package com.company.platform.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationBloomFilterTest {
+
+    private RevocationBloomFilter filter() {
+        return new RevocationBloomFilter(15, 10, 0.01, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void insertedDigestsSurviveOneRotation() {
+        var bloom = filter();
+        var d = TokenDigest.of("revoked");
+        bloom.put(d);
+        assertTrue(bloom.mightContain(d));
+
+        bloom.rotate();
+        assertTrue(bloom.mightContain(d));
+
+        bloom.rotate();
+        assertFalse(bloom.mightContain(d));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        var bloom = filter();
+        for (int i = 0; i < 150; i++)
+            bloom.put(TokenDigest.of("revoked-" + i));
+
+        int fp = 0;
+        for (int i = 0; i < 10_000; i++)
+            if (bloom.mightContain(TokenDigest.of("live-" + i)))
+                fp++;
+        assertTrue(fp < 300, "false positives: " + fp);
+        assertTrue(bloom.expectedFpp() < 0.03);
+    }
+}
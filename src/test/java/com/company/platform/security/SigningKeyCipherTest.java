@@ -0,0 +1,47 @@
+package com.company.platform.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SigningKeyCipherTest {
+
+    private static final String KEK = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final SigningKeyCipher cipher = new SigningKeyCipher(KEK);
+    private final byte[] pkcs8 = { 0x30, 0x2e, 0x02, 0x01, 0x00, 0x30, 0x05 };
+
+    @Test
+    void roundTripsAndHidesThePlaintext() throws Exception {
+        byte[] sealed = cipher.seal("kid-1", pkcs8);
+        assertTrue(SigningKeyCipher.isSealed(sealed));
+        assertFalse(SigningKeyCipher.isSealed(pkcs8));
+        assertEquals(1 + 12 + pkcs8.length + 16, sealed.length);
+        assertArrayEquals(pkcs8, cipher.open("kid-1", sealed));
+        assertFalse(new String(sealed, 13, pkcs8.length).contains(new String(pkcs8)));
+    }
+
+    @Test
+    void rejectsTamperingAnotherKidOrAnotherKek() {
+        byte[] sealed = cipher.seal("kid-1", pkcs8);
+        assertThrows(GeneralSecurityException.class, () -> cipher.open("kid-2", sealed));
+
+        byte[] flipped = sealed.clone();
+        flipped[flipped.length - 1] ^= 1;
+        assertThrows(GeneralSecurityException.class, () -> cipher.open("kid-1", flipped));
+
+        var other = new SigningKeyCipher(Base64.getEncoder().encodeToString(new byte[16]));
+        assertThrows(GeneralSecurityException.class, () -> other.open("kid-1", sealed));
+        assertThrows(GeneralSecurityException.class, () -> cipher.open("kid-1", pkcs8));
+    }
+
+    @Test
+    void refusesKeysOfTheWrongSize() {
+        assertThrows(IllegalStateException.class,
+                () -> new SigningKeyCipher(Base64.getEncoder().encodeToString(new byte[20])));
+        assertThrows(IllegalStateException.class, () -> new SigningKeyCipher("not base64!"));
+    }
+}
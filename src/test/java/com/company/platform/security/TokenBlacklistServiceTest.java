@@ -0,0 +1,109 @@
+package com.company.platform.security;
+
+import com.company.platform.domain.TokenRevocation;
+import com.company.platform.repo.TokenRevocationRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenBlacklistServiceTest {
+
+    private static final Instant T = Instant.parse("2026-10-18T10:00:00Z");
+
+    private final TokenRevocationRepo repo = mock(TokenRevocationRepo.class);
+    private final RevocationBloomFilter bloom = mock(RevocationBloomFilter.class);
+    private final TokenBlacklistService blacklist = new TokenBlacklistService(mock(JwtService.class),
+            mock(VerifiedTokenCache.class), repo, bloom);
+
+    // the shared table as other nodes have committed it
+    private final List<TokenRevocation> table = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(blacklist, "syncBatchSize", 2);
+        ReflectionTestUtils.setField(blacklist, "syncOverlapSeconds", 30L);
+        ReflectionTestUtils.setField(blacklist, "pruneBatchSize", 2);
+        // same keyset semantics as the SQL: (revoked_at, id) > (:revokedAt, :id)
+        when(repo.findRevokedAfter(any(), anyLong(), anyInt())).thenAnswer(inv -> {
+            Instant ts = inv.getArgument(0);
+            long id = inv.getArgument(1);
+            int limit = inv.getArgument(2);
+            return table.stream()
+                    .filter(r -> r.getRevokedAt().isAfter(ts) || r.getRevokedAt().equals(ts) && r.getId() > id)
+                    .sorted(Comparator.comparing(TokenRevocation::getRevokedAt).thenComparing(TokenRevocation::getId))
+                    .limit(limit)
+                    .toList();
+        });
+    }
+
+    @Test
+    void cursorAdvancesOverRowsSharingARevokedAt() {
+        for (long id = 1; id <= 5; id++)
+            revoked(id, T);
+
+        blacklist.syncFromStore();
+
+        for (long id = 1; id <= 5; id++)
+            assertTrue(blacklist.isTokenBlacklisted(digest(id)), "row " + id);
+        assertEquals(5, blacklist.getBlacklistedTokenCount());
+        InOrder pages = inOrder(repo);
+        pages.verify(repo).findRevokedAfter(Instant.EPOCH, 0, 2);
+        pages.verify(repo).findRevokedAfter(T, 2, 2); // same timestamp, next id
+        pages.verify(repo).findRevokedAfter(T, 4, 2);
+        pages.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void overlapReReadIsIdempotent() {
+        revoked(1, T);
+        revoked(2, T.plusSeconds(1));
+        blacklist.syncFromStore();
+
+        // assigned its revoked_at earlier but committed after the first sync
+        revoked(3, T.minusSeconds(10));
+        blacklist.syncFromStore();
+        blacklist.syncFromStore();
+
+        verify(repo, times(2)).findRevokedAfter(T.plusSeconds(1).minusSeconds(30), 0, 2);
+        assertEquals(3, blacklist.getBlacklistedTokenCount());
+        assertTrue(blacklist.isTokenBlacklisted(digest(3)));
+        for (long id = 1; id <= 3; id++)
+            verify(bloom, times(1)).put(digest(id)); // re-read rows are not added again
+    }
+
+    @Test
+    void pruneDeletesBatchesUntilCaughtUp() {
+        when(repo.deleteExpiredBatch(2)).thenReturn(2, 2, 1);
+        blacklist.pruneExpiredRevocations();
+        verify(repo, times(3)).deleteExpiredBatch(2);
+
+        clearInvocations(repo);
+        when(repo.deleteExpiredBatch(2)).thenReturn(0);
+        blacklist.pruneExpiredRevocations();
+        verify(repo, times(1)).deleteExpiredBatch(2);
+    }
+
+    private void revoked(long id, Instant at) {
+        var r = new TokenRevocation();
+        r.setId(id);
+        r.setDigest(digest(id).toBytes());
+        r.setExpiresAt(T.plusSeconds(3600));
+        r.setRevokedAt(at);
+        table.add(r);
+        when(bloom.mightContain(digest(id))).thenReturn(true);
+    }
+
+    private static TokenDigest digest(long id) {
+        return TokenDigest.of("token-" + id);
+    }
+}
@@ -0,0 +1,54 @@
+package com.company.platform.security;
+
+import com.company.platform.repo.PlatformOwnerRepo;
+import com.company.platform.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenEpochServiceTest {
+
+    private final UserRepo users = mock(UserRepo.class);
+    private final PlatformOwnerRepo owners = mock(PlatformOwnerRepo.class);
+
+    @Test
+    void epochsAreCachedUntilInvalidated() {
+        var epochs = new TokenEpochService(users, owners, 60, 100);
+        var token = new CurrentUser(UUID.randomUUID(), "a@b.c", "USER", 3);
+        when(users.findTokenEpochById(token.id())).thenReturn(Optional.of(3L));
+
+        assertTrue(epochs.isCurrent(token));
+        assertTrue(epochs.isCurrent(token));
+        verify(users, times(1)).findTokenEpochById(token.id());
+
+        when(users.findTokenEpochById(token.id())).thenReturn(Optional.of(4L));
+        epochs.invalidate(token.id());
+        assertFalse(epochs.isCurrent(token));
+    }
+
+    @Test
+    void deletedSubjectsAreNeverCurrent() {
+        var epochs = new TokenEpochService(users, owners, 60, 100);
+        var owner = new CurrentUser(UUID.randomUUID(), "o@b.c", "PLATFORM", Long.MAX_VALUE - 1);
+        when(owners.findTokenEpochById(owner.id())).thenReturn(Optional.empty());
+
+        assertFalse(epochs.isCurrent(owner));
+        verifyNoInteractions(users);
+    }
+
+    @Test
+    void staysWithinMaxSize() {
+        var epochs = new TokenEpochService(users, owners, 60, 50);
+        when(users.findTokenEpochById(any())).thenReturn(Optional.of(0L));
+
+        for (int i = 0; i < 500; i++)
+            epochs.isCurrent(new CurrentUser(UUID.randomUUID(), "a@b.c", "USER", 0));
+
+        assertTrue(epochs.cachedSubjects() <= 50, "cached " + epochs.cachedSubjects());
+    }
+}
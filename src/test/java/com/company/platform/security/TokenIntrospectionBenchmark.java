@@ -0,0 +1,73 @@
+package com.company.platform.security;
+
+import com.company.platform.repo.PlatformOwnerRepo;
+import com.company.platform.repo.TokenRevocationRepo;
+import com.company.platform.repo.UserRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-token cost of batch introspection versus one call per token.
+ * Not part of the regular suite; run with
+ * {@code mvn test -Dtest=TokenIntrospectionBenchmark}.
+ */
+class TokenIntrospectionBenchmark {
+
+    private static final int TOKENS = 20_000;
+    private static final int BATCH = 1_000;
+
+    @Test
+    void batchVersusSingle() {
+        var verified = new VerifiedTokenCache(1, new SimpleMeterRegistry()); // effectively uncached
+        var keyRing = new JwtKeyRing(null, mock(org.springframework.transaction.PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(keyRing, "algorithm", "HMAC");
+        var jwt = new JwtService(verified, keyRing);
+        ReflectionTestUtils.setField(jwt, "secret", "benchmark-secret-benchmark-secret-benchmark-secret-0123456789");
+        ReflectionTestUtils.setField(jwt, "issuer", "bench");
+        ReflectionTestUtils.setField(jwt, "accessTtlMin", 15L);
+        jwt.init();
+
+        var bloom = new RevocationBloomFilter(15, 100, 0.01, new SimpleMeterRegistry());
+        var blacklist = new TokenBlacklistService(jwt, verified, mock(TokenRevocationRepo.class), bloom);
+        var users = mock(UserRepo.class);
+        when(users.findTokenEpochById(any())).thenReturn(Optional.of(0L));
+        var epochs = new TokenEpochService(users, mock(PlatformOwnerRepo.class), 30, TOKENS);
+        var introspection = new TokenIntrospectionService(jwt, blacklist, epochs, 64);
+
+        List<String> tokens = new ArrayList<>(TOKENS);
+        for (int i = 0; i < TOKENS; i++)
+            tokens.add(jwt.generateAccessTokenForUser(UUID.randomUUID(), "u" + i + "@bench.local", 0));
+
+        // warm up JIT and the epoch cache
+        for (int i = 0; i < 3; i++) {
+            tokens.forEach(introspection::introspect);
+            introspection.introspect(tokens);
+        }
+
+        long t0 = System.nanoTime();
+        for (String token : tokens)
+            assertTrue(introspection.introspect(token).active());
+        long single = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        for (int from = 0; from < TOKENS; from += BATCH)
+            introspection.introspect(tokens.subList(from, from + BATCH))
+                    .forEach(r -> assertTrue(r.active()));
+        long batched = System.nanoTime() - t0;
+
+        System.out.printf("single:  %,d ns/token%n", single / TOKENS);
+        System.out.printf("batched: %,d ns/token (batch=%d, cores=%d)%n", batched / TOKENS, BATCH,
+                Runtime.getRuntime().availableProcessors());
+    }
+}
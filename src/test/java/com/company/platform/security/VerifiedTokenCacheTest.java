@@ -0,0 +1,46 @@
+package com.company.platform.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final CurrentUser user = new CurrentUser(UUID.randomUUID(), "a@b.c", "USER", 0);
+
+    @Test
+    void returnsCachedPrincipalUntilExpiry() {
+        var cache = new VerifiedTokenCache(10, new SimpleMeterRegistry());
+        var live = TokenDigest.of("live");
+        var expired = TokenDigest.of("expired");
+        cache.put(live, new VerifiedToken(user, System.currentTimeMillis() + 60_000, "HS512", null));
+        cache.put(expired, new VerifiedToken(user, System.currentTimeMillis() - 1, "HS512", null));
+
+        assertEquals(user, cache.get(live).principal());
+        assertNull(cache.get(expired));
+        assertNull(cache.get(TokenDigest.of("unknown")));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void staysWithinMaxSize() {
+        var cache = new VerifiedTokenCache(2, new SimpleMeterRegistry());
+        var verified = new VerifiedToken(user, System.currentTimeMillis() + 60_000, "HS512", null);
+        cache.put(TokenDigest.of("a"), verified);
+        cache.put(TokenDigest.of("b"), verified);
+        cache.put(TokenDigest.of("c"), verified);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(TokenDigest.of("c")), "a full cache evicts instead of refusing new tokens");
+    }
+
+    @Test
+    void digestRoundTripsThroughBytes() {
+        var d = TokenDigest.of("token");
+        assertEquals(d, TokenDigest.fromBytes(d.toBytes()));
+    }
+}
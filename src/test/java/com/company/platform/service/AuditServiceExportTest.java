@@ -0,0 +1,64 @@
+package com.company.platform.service;
+
+import com.company.platform.audit.AuditCursor;
+import com.company.platform.audit.AuditPipeline;
+import com.company.platform.audit.AuditRecord;
+import com.company.platform.repo.AuditLogQueryRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuditServiceExportTest {
+
+    private static final AuditLogQueryRepo.Filter ALL = new AuditLogQueryRepo.Filter(null, null, null, null, null,
+            null);
+
+    // ids 25..1, newest first, one second apart
+    private final List<AuditRecord> table = LongStream.iterate(25, i -> i >= 1, i -> i - 1)
+            .mapToObj(i -> new AuditRecord(i, null, null, "LOGIN", null, null, null, Instant.ofEpochSecond(i)))
+            .toList();
+    private final AuditLogQueryRepo query = mock(AuditLogQueryRepo.class);
+
+    AuditServiceExportTest() {
+        when(query.page(any(), any(), anyInt())).thenAnswer(inv -> {
+            AuditCursor after = inv.getArgument(1);
+            int limit = inv.getArgument(2);
+            return table.stream().filter(r -> after == null || r.id() < after.id()).limit(limit).toList();
+        });
+    }
+
+    private AuditService service(long maxRows) {
+        return new AuditService(mock(AuditPipeline.class), query, new ObjectMapper(), 500, 10, maxRows, 300);
+    }
+
+    @Test
+    void exportsEverythingInPages() {
+        var seen = new ArrayList<AuditRecord>();
+        var result = service(1000).export(ALL, null, seen::add);
+        assertEquals(table, seen);
+        assertEquals(new AuditService.Export(25, null), result);
+        verify(query, times(3)).page(any(), any(), eq(10));
+    }
+
+    @Test
+    void stopsAtTheRowCapWithACursorToContinue() {
+        var seen = new ArrayList<AuditRecord>();
+        var first = service(12).export(ALL, null, seen::add);
+        assertEquals(12, first.rows());
+        assertNotNull(first.nextCursor());
+
+        var second = service(12).export(ALL, first.nextCursor(), seen::add);
+        var third = service(12).export(ALL, second.nextCursor(), seen::add);
+        assertEquals(1, third.rows());
+        assertNull(third.nextCursor());
+        assertEquals(table, seen);
+    }
+}
@@ -0,0 +1,95 @@
+package com.company.platform.service;
+
+import com.company.platform.domain.Role;
+import com.company.platform.err.BadRequestException;
+import com.company.platform.err.TooManyRequestsException;
+import com.company.platform.guard.Permission;
+import com.company.platform.repo.InviteRepo;
+import com.company.platform.repo.RoleRepo;
+import com.company.platform.security.InviteCredentials;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InviteServiceBulkTest {
+
+    private final UUID org = UUID.randomUUID();
+    private final InviteRepo invites = mock(InviteRepo.class);
+    private final RoleRepo roles = mock(RoleRepo.class);
+    private final InviteCredentials credentials = mock(InviteCredentials.class);
+    private final EntityManager em = mock(EntityManager.class);
+    private final InviteService service = new InviteService(invites, roles, credentials, mock(AuditService.class),
+            mock(PlatformTransactionManager.class), 2, 5, 100);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "em", em);
+        var user = new Role();
+        user.setName("USER");
+        when(roles.findAssignable(org, "USER")).thenReturn(Optional.of(user));
+        when(invites.findPendingEmails(eq(org), any())).thenReturn(List.of());
+        when(credentials.issueAll(anyInt())).thenAnswer(inv -> IntStream.range(0, inv.<Integer>getArgument(0))
+                .mapToObj(i -> new InviteCredentials.Issued("secret-" + i, null, new byte[32]))
+                .toList());
+    }
+
+    @Test
+    void tooManyRowsFailsBeforeAnythingIsCreated() {
+        var e = assertThrows(BadRequestException.class,
+                () -> service.createInvitesBulk(org, null, Permission.ALL, rows(6)));
+        assertTrue(e.getMessage().startsWith("Too many rows"));
+        verifyNoInteractions(credentials, em);
+    }
+
+    @Test
+    void malformedRowFailsBeforeAnythingIsCreated() {
+        var good = rows(4);
+        var malformed = new Iterator<InviteService.BulkRow>() {
+            public boolean hasNext() {
+                return true;
+            }
+
+            public InviteService.BulkRow next() {
+                if (good.hasNext())
+                    return good.next();
+                throw new BadRequestException("Malformed row: unexpected token");
+            }
+        };
+        assertThrows(BadRequestException.class, () -> service.createInvitesBulk(org, null, Permission.ALL, malformed));
+        verifyNoInteractions(credentials, em);
+    }
+
+    @Test
+    void laterChunkFailureStillReturnsCommittedRows() {
+        when(credentials.issueAll(anyInt()))
+                .thenReturn(List.of(new InviteCredentials.Issued("s1", null, new byte[32]),
+                        new InviteCredentials.Issued("s2", null, new byte[32])))
+                .thenThrow(new TooManyRequestsException("Too many authentication requests, retry later", 1));
+
+        var results = service.createInvitesBulk(org, null, Permission.ALL, rows(5));
+
+        assertEquals(5, results.size());
+        assertEquals(List.of("s1", "s2"), results.subList(0, 2).stream()
+                .map(InviteService.BulkResult::tempPassword).toList());
+        assertTrue(results.subList(0, 2).stream().allMatch(r -> r.status().equals(InviteService.BulkResult.CREATED)));
+        for (var r : results.subList(2, 5)) {
+            assertEquals(InviteService.BulkResult.FAILED, r.status());
+            assertTrue(r.error().startsWith("Not processed"));
+        }
+        verify(credentials, times(2)).issueAll(anyInt()); // stopped at the failing chunk
+        verify(em, times(2)).persist(any());
+    }
+
+    private static Iterator<InviteService.BulkRow> rows(int n) {
+        return IntStream.range(0, n).mapToObj(i -> new InviteService.BulkRow("u" + i + "@x.io", "USER")).iterator();
+    }
+}
@@ -0,0 +1,100 @@
+package com.company.platform.service;
+
+import com.company.platform.domain.Role;
+import com.company.platform.err.BadRequestException;
+import com.company.platform.repo.*;
+import com.company.platform.security.InviteCredentials;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrgServiceImportTest {
+
+    private final OrganizationRepo orgs = mock(OrganizationRepo.class);
+    private final RoleRepo roles = mock(RoleRepo.class);
+    private final UserRepo users = mock(UserRepo.class);
+    private final InviteCredentials credentials = mock(InviteCredentials.class);
+    private final OrgService service = new OrgService(orgs, mock(OrgMembershipRepo.class), roles, users,
+            mock(InviteRepo.class), credentials, mock(AuditService.class), mock(PlatformTransactionManager.class), 2);
+    private final List<OrgService.ImportResult> emitted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "em", mock(EntityManager.class));
+        var owner = new Role();
+        owner.setName("OWNER");
+        when(roles.findByNameAndOrgIdIsNull("OWNER")).thenReturn(Optional.of(owner));
+        when(orgs.findExistingSlugs(any())).thenReturn(List.of());
+        when(users.findExistingEmails(any())).thenReturn(List.of());
+        when(credentials.issueAll(anyInt())).thenAnswer(inv -> IntStream.range(0, inv.<Integer>getArgument(0))
+                .mapToObj(i -> new InviteCredentials.Issued("secret-" + i, null, new byte[32]))
+                .toList());
+    }
+
+    @Test
+    void malformedRowAfterACommittedChunkEndsWithAnErrorSummary() {
+        var summary = service.importOrgs(null, failingAfter(3, new BadRequestException("Malformed row: x")),
+                emitted::add);
+
+        assertEquals(2, emitted.size(), "the first chunk was imported and reported");
+        assertTrue(emitted.stream().allMatch(r -> r.status().equals(OrgService.ImportResult.CREATED)));
+        assertEquals(2, summary.getCreated());
+        assertEquals(2, summary.getProcessedRows());
+        assertEquals("Malformed row: x", summary.getError());
+    }
+
+    @Test
+    void databaseFailureMidImportIsReportedWithoutInternals() {
+        when(orgs.findExistingSlugs(any())).thenReturn(List.of())
+                .thenThrow(new DataAccessResourceFailureException("connection refused to db-1:5432"));
+
+        var summary = service.importOrgs(null, failingAfter(5, null), emitted::add);
+
+        assertEquals(2, summary.getProcessedRows());
+        assertEquals("Import failed", summary.getError());
+    }
+
+    @Test
+    void failureBeforeAnyResultFailsTheCall() {
+        assertThrows(BadRequestException.class, () -> service.importOrgs(null,
+                failingAfter(1, new BadRequestException("Malformed row: x")), emitted::add));
+        assertTrue(emitted.isEmpty());
+    }
+
+    @Test
+    void completeImportHasNoError() {
+        var summary = service.importOrgs(null, failingAfter(3, null), emitted::add);
+        assertEquals(3, summary.getCreated());
+        assertNull(summary.getError());
+    }
+
+    /**
+     * n good rows, then the failure (or the end of the input if null)
+     */
+    private static Iterator<OrgService.ImportRow> failingAfter(int n, RuntimeException failure) {
+        return new Iterator<>() {
+            int i;
+
+            public boolean hasNext() {
+                if (i == n && failure != null)
+                    throw failure;
+                return i < n;
+            }
+
+            public OrgService.ImportRow next() {
+                i++;
+                return new OrgService.ImportRow("Org " + i, "org-" + i, "owner" + i + "@x.io");
+            }
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package com.company.platform.service;
+
+import com.company.platform.err.BadRequestException;
+import com.company.platform.security.CurrentUser;
+import com.company.platform.security.JwtService;
+import com.company.platform.security.TokenEpochService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Refresh token rotation against the configured database, so the conditional
+ * updates behind rotation and family revocation run for real.
+ */
+@SpringBootTest
+class RefreshTokenServiceTest {
+
+    @Autowired
+    RefreshTokenService refreshTokens;
+    @Autowired
+    TokenEpochService tokenEpochs;
+    @Autowired
+    JwtService jwt;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private CurrentUser user;
+
+    @BeforeEach
+    void setUp() {
+        UUID id = UUID.randomUUID();
+        String email = "refresh-" + id + "@example.com";
+        jdbc.update("INSERT INTO users (id, email, password_hash) VALUES (?, ?, 'x')", id, email);
+        user = new CurrentUser(id, email, "USER", 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("DELETE FROM refresh_tokens WHERE subject_id = ?", user.id());
+        jdbc.update("DELETE FROM users WHERE id = ?", user.id());
+    }
+
+    @Test
+    void eachUseRotatesTheToken() {
+        String first = refreshTokens.issue(user);
+
+        var second = refreshTokens.refresh(first);
+        assertNotEquals(first, second.refreshToken());
+        assertEquals(user.id(), jwt.authenticate(second.accessToken()).id());
+
+        var third = refreshTokens.refresh(second.refreshToken());
+        assertNotEquals(second.refreshToken(), third.refreshToken());
+        assertEquals(3, familyRows());
+        assertEquals(1, liveRows(), "only the newest token of the family is usable");
+    }
+
+    @Test
+    void replayedTokenRevokesTheWholeFamily() {
+        String stolen = refreshTokens.issue(user);
+        String current = refreshTokens.refresh(stolen).refreshToken();
+
+        assertThrows(BadRequestException.class, () -> refreshTokens.refresh(stolen));
+        assertEquals(0, liveRows(), "the revocation survives the rejected request");
+        assertThrows(BadRequestException.class, () -> refreshTokens.refresh(current));
+    }
+
+    @Test
+    void concurrentUseOfOneTokenLetsExactlyOneWin() throws Exception {
+        String token = refreshTokens.issue(user);
+        var start = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<RefreshTokenService.Tokens>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Callable<RefreshTokenService.Tokens> use = () -> {
+                    start.await();
+                    return refreshTokens.refresh(token);
+                };
+                results.add(pool.submit(use));
+            }
+            start.countDown();
+            int won = 0;
+            for (var r : results) {
+                try {
+                    r.get();
+                    won++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(BadRequestException.class, e.getCause());
+                }
+            }
+            assertEquals(1, won, "concurrent uses that succeeded");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void expiredTokenIsRejectedAndPruned() {
+        String token = refreshTokens.issue(user);
+        jdbc.update("UPDATE refresh_tokens SET expires_at = now() - interval '1 second' WHERE subject_id = ?",
+                user.id());
+
+        var e = assertThrows(BadRequestException.class, () -> refreshTokens.refresh(token));
+        assertEquals("Refresh token expired", e.getMessage());
+
+        refreshTokens.pruneExpired();
+        assertEquals(0, familyRows());
+        assertThrows(BadRequestException.class, () -> refreshTokens.refresh(token));
+    }
+
+    @Test
+    void logoutEverywhereInvalidatesRefreshTokens() {
+        String token = refreshTokens.issue(user);
+        tokenEpochs.revokeAllForUser(user.id());
+
+        assertThrows(BadRequestException.class, () -> refreshTokens.refresh(token));
+        assertEquals(0, liveRows());
+    }
+
+    private int familyRows() {
+        return jdbc.queryForObject("SELECT count(*) FROM refresh_tokens WHERE subject_id = ?", Integer.class,
+                user.id());
+    }
+
+    private int liveRows() {
+        return jdbc.queryForObject("SELECT count(*) FROM refresh_tokens WHERE subject_id = ? AND revoked_at IS NULL",
+                Integer.class, user.id());
+    }
+}
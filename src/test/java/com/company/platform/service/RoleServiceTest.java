@@ -0,0 +1,93 @@
+package com.company.platform.service;
+
+import com.company.platform.domain.Role;
+import com.company.platform.err.BadRequestException;
+import com.company.platform.err.ForbiddenException;
+import com.company.platform.guard.MembershipCache;
+import com.company.platform.guard.Permission;
+import com.company.platform.repo.RoleRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RoleServiceTest {
+
+    private static final long INVITE = Permission.INVITE_CREATE.bit;
+    private static final long MANAGE = Permission.ROLE_MANAGE.bit;
+
+    private final UUID org = UUID.randomUUID();
+    private final RoleRepo roles = mock(RoleRepo.class);
+    private final MembershipCache membershipCache = mock(MembershipCache.class);
+    private final RoleService service = new RoleService(roles, mock(AuditService.class), membershipCache);
+
+    @Test
+    void builtInNamesAreReservedInAnyCase() {
+        for (String name : List.of("OWNER", "owner", " Admin "))
+            assertThrows(BadRequestException.class,
+                    () -> service.create(org, null, Permission.ALL, name, null, List.of()));
+        verify(roles, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void concurrentCreateOfTheSameNameIsABadRequest() {
+        when(roles.findAssignable(org, "Support")).thenReturn(Optional.empty());
+        when(roles.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uniq_role_org_name"));
+
+        var e = assertThrows(BadRequestException.class,
+                () -> service.create(org, null, Permission.ALL, "Support", null, List.of("INVITE_CREATE")));
+        assertEquals("Role already exists: Support", e.getMessage());
+    }
+
+    @Test
+    void updateNeedsEveryPermissionOfTheRoleAndOfTheNewMask() {
+        var role = role(INVITE | MANAGE);
+
+        assertThrows(ForbiddenException.class, () -> service.update(org, role.getId(), null, INVITE, "narrower",
+                List.of("INVITE_CREATE")), "role holds more than the caller");
+        assertThrows(ForbiddenException.class, () -> service.update(org, role.getId(), null, INVITE | MANAGE,
+                "wider", List.of("INVITE_CREATE", "AUDIT_READ")), "new mask exceeds the caller");
+        assertEquals(INVITE | MANAGE, role.getPermissions());
+        verifyNoInteractions(membershipCache);
+
+        service.update(org, role.getId(), null, INVITE | MANAGE, "narrower", List.of("INVITE_CREATE"));
+        assertEquals(INVITE, role.getPermissions());
+        verify(membershipCache).invalidateOrg(org);
+    }
+
+    @Test
+    void deleteNeedsEveryPermissionOfTheRole() {
+        var role = role(INVITE | MANAGE);
+
+        assertThrows(ForbiddenException.class, () -> service.delete(org, role.getId(), null, MANAGE));
+        verify(roles, never()).delete(any());
+
+        service.delete(org, role.getId(), null, INVITE | MANAGE);
+        verify(roles).delete(role);
+        verify(membershipCache).invalidateOrg(org);
+    }
+
+    @Test
+    void roleStillInUseCannotBeDeleted() {
+        var role = role(INVITE);
+        doThrow(new DataIntegrityViolationException("fk_invites_role")).when(roles).flush();
+
+        assertThrows(BadRequestException.class, () -> service.delete(org, role.getId(), null, Permission.ALL));
+        verifyNoInteractions(membershipCache);
+    }
+
+    private Role role(long permissions) {
+        var role = new Role();
+        role.setOrgId(org);
+        role.setName("Support");
+        role.setPermissions(permissions);
+        when(roles.findByIdAndOrgId(role.getId(), org)).thenReturn(Optional.of(role));
+        return role;
+    }
+}